@@ -0,0 +1,111 @@
+package com.saksham.portal.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.model.Message;
+import com.saksham.portal.chat.service.MessageIdAllocator;
+import com.saksham.portal.chat.service.MessageWriteBehind;
+import com.saksham.portal.groups.model.Group;
+import com.saksham.portal.users.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Chat message insert throughput from 8 concurrent senders against an
+ * in-memory H2 database: one IDENTITY insert and commit per message (the
+ * default path) versus write-behind with SYNC and GROUP_COMMIT durability.
+ * H2 commits are far cheaper than MySQL's, so the gap here is a lower bound.
+ * GROUP_COMMIT is measured at saturation: once its queue is full, senders
+ * wait for the writer, so the score is the writer's sustained insert rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ChatWriteBenchmark {
+
+    @Param({"PER_MESSAGE", "SYNC", "GROUP_COMMIT"})
+    String mode;
+
+    private JdbcConnectionPool dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private MessageWriteBehind writeBehind;
+    private User sender;
+    private Group group;
+
+    @Setup
+    public void setUp() {
+        dataSource = JdbcConnectionPool.create("jdbc:h2:mem:chat-" + mode + ";DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setMaxConnections(16);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE messages (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "sender_id BIGINT NOT NULL, receiver_id BIGINT, group_id BIGINT, "
+                + "content VARCHAR(255), timestamp TIMESTAMP(6))");
+        jdbcTemplate.execute("CREATE TABLE message_id_sequence (name VARCHAR(255) PRIMARY KEY, next_val BIGINT NOT NULL)");
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        writeBehind = new MessageWriteBehind(
+                jdbcTemplate, transactionManager,
+                new MessageIdAllocator(jdbcTemplate, transactionManager, 1000),
+                new SimpleMeterRegistry(),
+                !"PER_MESSAGE".equals(mode),
+                "GROUP_COMMIT".equals(mode) ? MessageWriteBehind.Durability.GROUP_COMMIT : MessageWriteBehind.Durability.SYNC,
+                200, Duration.ofMillis(5), 10_000, false);
+
+        sender = new User();
+        sender.setId(7L);
+        group = new Group();
+        group.setId(3L);
+    }
+
+    @TearDown
+    public void tearDown() throws ReflectiveOperationException {
+        // Lets the writer drain its queue before the database goes away
+        Fixtures.invoke(writeBehind, "shutdown");
+        dataSource.dispose();
+    }
+
+    @Benchmark
+    public Object send() {
+        Message message = Message.builder()
+                .sender(sender)
+                .group(group)
+                .content("Reminder: standup at 10am.")
+                .build();
+        if (writeBehind.isEnabled()) {
+            return writeBehind.submit(message, saved -> { });
+        }
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update("INSERT INTO messages (sender_id, group_id, content, timestamp) VALUES (?, ?, ?, ?)",
+                    sender.getId(), group.getId(), message.getContent(), now);
+            return new MessageResponse(null, sender.getId(), null, group.getId(), message.getContent(), now);
+        });
+    }
+}
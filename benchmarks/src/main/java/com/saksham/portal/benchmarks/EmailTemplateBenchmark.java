@@ -0,0 +1,45 @@
+package com.saksham.portal.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.saksham.portal.common.enums.EmailType;
+import com.saksham.portal.common.util.EmailTemplate;
+
+/**
+ * Subject and body rendering for every EmailType (an enum @Param with no values
+ * runs each constant).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param
+    EmailType type;
+
+    private final String[] params = {"Cohort 12", "jane.doe", "Looking forward to the demo on Friday!"};
+
+    @Benchmark
+    public String messageBody() {
+        return EmailTemplate.getMessageBody(type, params);
+    }
+
+    @Benchmark
+    public String subject() {
+        return EmailTemplate.getSubject(type, params);
+    }
+}
@@ -0,0 +1,69 @@
+package com.saksham.portal.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+
+import com.saksham.portal.auth.util.JwtKeyRing;
+import com.saksham.portal.auth.util.JwtUtil;
+
+/**
+ * Builds portal components outside Spring. Fields normally filled by
+ * {@code @Value} are set reflectively so the benchmarks exercise the exact
+ * production classes.
+ */
+final class Fixtures {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private Fixtures() {
+    }
+
+    static JwtUtil jwtUtil(String algorithm) throws ReflectiveOperationException {
+        JwtUtil jwtUtil = new JwtUtil(keyRing(algorithm));
+        set(jwtUtil, "SECRET", SECRET);
+        set(jwtUtil, "EXPIRATION", 900_000L);
+        set(jwtUtil, "REFRESH_EXPIRATION", 604_800_000L);
+        set(jwtUtil, "ALGORITHM", algorithm);
+        Method init = JwtUtil.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(jwtUtil);
+        return jwtUtil;
+    }
+
+    // ES256 needs a configured key pair, as in production; generate one per run
+    static JwtKeyRing keyRing(String algorithm) {
+        if (!"ES256".equals(algorithm)) {
+            return new JwtKeyRing(algorithm, "", "", "", List.of());
+        }
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            Base64.Encoder base64 = Base64.getEncoder();
+            return new JwtKeyRing(algorithm, "benchmark",
+                    base64.encodeToString(pair.getPrivate().getEncoded()),
+                    base64.encodeToString(pair.getPublic().getEncoded()),
+                    List.of());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void invoke(Object target, String method) throws ReflectiveOperationException {
+        Method declared = target.getClass().getDeclaredMethod(method);
+        declared.setAccessible(true);
+        declared.invoke(target);
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
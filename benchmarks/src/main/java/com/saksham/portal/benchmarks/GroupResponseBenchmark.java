@@ -0,0 +1,56 @@
+package com.saksham.portal.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.saksham.portal.common.enums.Role;
+import com.saksham.portal.groups.dto.GroupResponse;
+import com.saksham.portal.groups.model.Group;
+import com.saksham.portal.users.model.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupResponseBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int members;
+
+    private Group group;
+
+    @Setup
+    public void setUp() {
+        group = Group.builder()
+                .id(1L)
+                .name("Cohort 12")
+                .description("Benchmark group")
+                .build();
+        for (long id = 1; id <= members; id++) {
+            group.addUser(User.builder()
+                    .id(id)
+                    .username("user" + id)
+                    .email("user" + id + "@example.com")
+                    .role(Role.USER)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public GroupResponse fromEntity() {
+        return GroupResponse.fromEntity(group);
+    }
+}
@@ -0,0 +1,75 @@
+package com.saksham.portal.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.saksham.portal.auth.cache.VerifiedTokenCache;
+import com.saksham.portal.auth.filter.JwtAuthenticationFilter;
+import com.saksham.portal.auth.service.TokenRevocationService;
+import com.saksham.portal.auth.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Full per-request cost of JwtAuthenticationFilter with a no-op chain, with and
+ * without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"HS256", "ES256"})
+    String algorithm;
+
+    @Param({"false", "true"})
+    boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        JwtUtil jwtUtil = Fixtures.jwtUtil(algorithm);
+        VerifiedTokenCache cache = new VerifiedTokenCache(
+                jwtUtil, new SimpleMeterRegistry(), cacheEnabled, 10_000, Duration.ofMinutes(15));
+        // Nothing is revoked, so the repository is never touched (load() is not called here)
+        TokenRevocationService revocations = new TokenRevocationService(null, 604_800_000L, 10_000);
+        filter = new JwtAuthenticationFilter(cache, revocations);
+        authorization = "Bearer " + jwtUtil.generateToken(42L, "USER", 7L);
+    }
+
+    @Benchmark
+    public void authenticate(Blackhole blackhole) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/messages/group");
+        request.addHeader("Authorization", authorization);
+        FilterChain chain = (req, res) -> blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.saksham.portal.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.saksham.portal.common.enums.Role;
+import com.saksham.portal.users.dto.UserDetailsMapper;
+import com.saksham.portal.users.dto.UserDetailsResponse;
+import com.saksham.portal.users.model.User;
+import com.saksham.portal.users.model.UserDetails;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsMapperBenchmark {
+
+    private final UserDetailsMapper mapper = new UserDetailsMapper();
+    private UserDetails details;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder()
+                .id(42L)
+                .username("jane.doe")
+                .email("jane.doe@example.com")
+                .role(Role.USER)
+                .build();
+        details = UserDetails.builder()
+                .id(7L)
+                .user(user)
+                .firstName("Jane")
+                .lastName("Doe")
+                .referralSource("LinkedIn")
+                .dateOfBirth(LocalDate.of(1998, 4, 12))
+                .eadType("OPT")
+                .eadStartDate(LocalDate.of(2024, 6, 1))
+                .priorExperience(true)
+                .experienceDetails("Two internships in backend development")
+                .programmingLanguages("Java, Python, SQL")
+                .resumeFilePath("uploads/resume.pdf")
+                .eadFilePath("uploads/ead.pdf")
+                .idFilePath("uploads/id.pdf")
+                .profileCompleted(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public UserDetailsResponse toResponse() {
+        return mapper.toResponse(details);
+    }
+}
@@ -0,0 +1,19 @@
+package com.saksham.portal.auth.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the {@link com.saksham.portal.auth.dto.JwtPrincipal} that
+ * JwtAuthenticationFilter already verified for this request.
+ *
+ * Use instead of reading the Authorization header in controllers.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,129 @@
+package com.saksham.portal.auth.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.auth.util.JwtUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Opt-in cache of already verified bearer tokens.
+ *
+ * Polling clients send the same token every few seconds; with the cache enabled
+ * a repeat token is answered from memory and skips the HMAC check entirely.
+ * Entries are keyed by a SHA-256 digest of the token (the raw token is never
+ * held), are bounded by {@code jwt.cache.max-size} and expire exactly when the
+ * token's own {@code exp} claim does.
+ *
+ * Hit/miss/eviction counters are published as {@code cache.*} meters tagged
+ * {@code cache=jwt.verified-tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, JwtPrincipal> cache;
+
+    public VerifiedTokenCache(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.enabled:false}") boolean enabled,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.max-ttl:PT15M}") Duration maxTtl) {
+        this.jwtUtil = jwtUtil;
+
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String digest, JwtPrincipal principal, long currentTime) {
+                        return timeToLive(principal, maxTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return timeToLive(principal, maxTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified principal for the token, verifying it only on a cache miss.
+     * Propagates the same exceptions as {@link JwtUtil#parse(String)}.
+     */
+    public JwtPrincipal resolve(String token) {
+        if (cache == null) {
+            return jwtUtil.parse(token);
+        }
+
+        String key = digest(token);
+        JwtPrincipal principal = cache.get(key, k -> jwtUtil.parse(token));
+        if (principal.isExpired()) {
+            // Clock edge: expiry is enforced by the cache, this only guards the last millisecond
+            cache.invalidate(key);
+            return jwtUtil.parse(token);
+        }
+        return principal;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    private static Duration timeToLive(JwtPrincipal principal, Duration maxTtl) {
+        if (principal.expiresAt() == null) {
+            return maxTtl;
+        }
+        Duration remaining = Duration.between(Instant.now(), principal.expiresAt());
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTtl) < 0 ? remaining : maxTtl;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
@@ -0,0 +1,33 @@
+package com.saksham.portal.auth.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+
+    // Burst size and time to earn back one attempt, per username
+    private int usernameCapacity = 5;
+    private Duration usernameRefill = Duration.ofSeconds(30);
+
+    // Burst size and time to earn back one attempt, per client IP
+    private int ipCapacity = 20;
+    private Duration ipRefill = Duration.ofSeconds(3);
+
+    // Upper bound on buckets kept per dimension; idle buckets are evicted first
+    private long maxTrackedKeys = 100_000;
+
+    // Load balancers / reverse proxies (IPs or CIDR ranges) whose X-Forwarded-For
+    // names the client; empty means the peer address is the client
+    private List<String> trustedProxies = new ArrayList<>();
+}
@@ -1,15 +1,21 @@
 package com.saksham.portal.auth.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.saksham.portal.auth.dto.LoginRequest;
+import com.saksham.portal.auth.dto.RefreshRequest;
 import com.saksham.portal.auth.dto.RegisterRequest;
 import com.saksham.portal.auth.service.AuthService;
+import com.saksham.portal.auth.service.LoginRateLimiter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -18,24 +24,53 @@ import lombok.RequiredArgsConstructor;
 public class AuthController {
     
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         try {
             var authResponse = authService.register(request);
             return ResponseEntity.ok(authResponse);
+        } catch (ResponseStatusException e) {
+            return rejected(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
+            // Throttle before any BCrypt work is spent on the attempt
+            loginRateLimiter.checkLoginAllowed(request.getUsername(), loginRateLimiter.clientAddress(httpRequest));
             var authResponse = authService.login(request);
             return ResponseEntity.ok(authResponse);
+        } catch (ResponseStatusException e) {
+            return rejected(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Login failed: " + e.getMessage());
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        try {
+            var authResponse = authService.refresh(request);
+            return ResponseEntity.ok(authResponse);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh failed: " + e.getMessage());
+        }
+    }
+
+    // Overload and throttle responses (hashing pool full, too many attempts) tell the client to back off and retry,
+    // using the limiter's own wait when it gives one; anything else (e.g. 409 on a duplicate registration) is final
+    private ResponseEntity<?> rejected(ResponseStatusException e) {
+        var response = ResponseEntity.status(e.getStatusCode());
+        int status = e.getStatusCode().value();
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            String retryAfter = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            response.header(HttpHeaders.RETRY_AFTER, retryAfter != null ? retryAfter : "1");
+        }
+        return response.body(e.getReason());
+    }
 }
@@ -0,0 +1,33 @@
+package com.saksham.portal.auth.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.saksham.portal.auth.util.JwtKeyRing;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the ES256 verification keys so other nodes and edge services can
+ * check tokens by {@code kid} without holding any secret.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, String>>>> jwks() {
+        // Verifiers cache keys by kid; a short max-age lets them notice rotations
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Map.of("keys", keyRing.toJwks()));
+    }
+}
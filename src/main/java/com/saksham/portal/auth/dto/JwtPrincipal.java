@@ -0,0 +1,25 @@
+package com.saksham.portal.auth.dto;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified access token.
+ *
+ * Produced once per request by {@code JwtUtil.parse} and stored as the
+ * principal of the {@code SecurityContext}, so nothing downstream has to
+ * re-parse the Authorization header.
+ *
+ * {@code groupId} is the membership at issue time; only trust it through
+ * GroupMembershipTracker, which knows whether it has changed since.
+ */
+public record JwtPrincipal(
+    Long userId,
+    String role,
+    Long groupId,
+    Instant issuedAt,
+    Instant expiresAt
+) {
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
@@ -10,8 +10,11 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.cache.VerifiedTokenCache;
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.auth.service.TokenRevocationService;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,16 +25,18 @@ import jakarta.servlet.http.HttpServletResponse;
  * 
  * This filter intercepts EVERY request and:
  * 1. Extracts JWT token from Authorization header
- * 2. Validates the token
- * 3. Sets authentication in SecurityContext
+ * 2. Validates the token (a single signature check via JwtUtil.parse)
+ * 3. Sets authentication in SecurityContext with a JwtPrincipal as principal
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(VerifiedTokenCache tokenCache, TokenRevocationService revocationService) {
+        this.tokenCache = tokenCache;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -51,49 +56,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // 2. Extract JWT token (remove "Bearer " prefix)
         String jwt = authHeader.substring(7);
-        Long userId;
+        JwtPrincipal principal;
 
         try {
-            // 3. Extract username from token
-            userId = jwtUtil.extractUserId(jwt);
-        } catch (Exception e) {
-            // Invalid token format
+            // 3. Verify signature + expiry once (or reuse a cached verification)
+            principal = tokenCache.resolve(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid, tampered or expired token - continue without authentication
             filterChain.doFilter(request, response);
             return;
         }
 
-        // 4. If username exists and no authentication is set
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            
-            try {
-                // 5. Extract role from token
-                String role = jwtUtil.extractRole(jwt);
-                
-                // 6. Validate token
-                if (jwtUtil.isTokenValid(jwt, userId)) {
-                    
-                    // 7. Create authorities from role
-                    List<SimpleGrantedAuthority> authorities = List.of(
-                        new SimpleGrantedAuthority("ROLE_" + role)
-                    );
-                    
-                    // 8. Create authentication token with authorities
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(
-                            userId,
-                            null, // No credentials needed for JWT
-                            authorities // Use authorities from token
-                        );
-                    
-                    // 9. Set authentication details
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // 10. Set authentication in SecurityContext
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception e) {
-                // Token parsing failed, continue without authentication
-            }
+        // 4. Reject tokens of suspended/revoked users (Bloom filter fast path, no DB hit)
+        if (revocationService.isRevoked(principal)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 5. If no authentication is set yet
+        if (principal.userId() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            // 6. Create authorities from role
+            List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_" + principal.role())
+            );
+
+            // 7. Create authentication token with the verified claims as principal
+            UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null, // No credentials needed for JWT
+                    authorities // Use authorities from token
+                );
+
+            // 8. Set authentication details
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            // 9. Set authentication in SecurityContext
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         // 10. Continue with filter chain
@@ -0,0 +1,37 @@
+package com.saksham.portal.auth.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Deny-list entry: every token issued to the user at or before
+ * {@code revokedAt} is rejected. One row per user; later revocations move the cutoff.
+ */
+@Entity
+@Table(name = "token_revocations", indexes =
+    @Index(name = "idx_token_revocations_revoked_at", columnList = "revoked_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(length = 100)
+    private String reason;
+}
@@ -1,10 +1,14 @@
 package com.saksham.portal.auth.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.saksham.portal.auth.dto.AuthResponse;
+import com.saksham.portal.auth.dto.JwtPrincipal;
 import com.saksham.portal.auth.dto.LoginRequest;
+import com.saksham.portal.auth.dto.RefreshRequest;
 import com.saksham.portal.auth.dto.RegisterRequest;
 import com.saksham.portal.auth.util.JwtUtil;
 import com.saksham.portal.common.enums.Role;
@@ -12,6 +16,9 @@ import com.saksham.portal.common.enums.UserStatus;
 import com.saksham.portal.common.service.NotificationEmailService;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.users.repository.UserRepository;
+import com.saksham.portal.users.repository.UserRepository.IdentityView;
+
+import io.jsonwebtoken.JwtException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,40 +26,85 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
     private final JwtUtil jwtUtil;
     private final NotificationEmailService notificationEmailService;
+    private final TokenRevocationService revocationService;
+    private final RegisteredIdentityFilter identityFilter;
 
     public AuthResponse register(RegisterRequest req) {
-        if(userRepo.findByUsername(req.getUsername()).isPresent()){
-            throw new RuntimeException("Username already exists");
+        // Most new names are unknown to the Bloom filter and skip the DB probe entirely
+        if(identityFilter.mightExist(req.getUsername(), req.getEmail())) {
+            for (IdentityView existing : userRepo.findByUsernameOrEmail(req.getUsername(), req.getEmail())) {
+                if (existing.getUsername().equalsIgnoreCase(req.getUsername())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Username already exists");
+                }
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
+            }
         }
 
         User user = User.builder()
                 .username(req.getUsername())
                 .email(req.getEmail())
-                .password(passwordEncoder.encode(req.getPassword()))
+                .password(passwordHashing.encode(req.getPassword()))
                 .role(Role.USER)
                 .status(UserStatus.ONBOARDING)
                 .build();
         
-        userRepo.save(user);
+        try {
+            userRepo.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration (or a collation-only match)
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Username or email already exists");
+        }
+        identityFilter.add(user.getUsername(), user.getEmail());
         
         // Send registration notification email
         notificationEmailService.sendRegistrationNotification(user.getEmail(), user.getUsername());
 
-        String token = jwtUtil.generateToken(user.getId(), user.getRole().name());
-        return new AuthResponse(token, user);
+        return issueTokens(user);
     }
 
     public AuthResponse login(LoginRequest req) {
         User user = userRepo.findByUsername(req.getUsername())
                 .orElseThrow(() -> new RuntimeException("User Not found"));
-        if(!passwordEncoder.matches(req.getPassword(), user.getPassword())) {
+        if(!passwordHashing.matches(req.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
-        String token = jwtUtil.generateToken(user.getId(), user.getRole().name());
-        return new AuthResponse(token, user);
+        if(user.getStatus() == UserStatus.SUSPENDED) {
+            throw new RuntimeException("Account suspended");
+        }
+        return issueTokens(user);
+    }
+
+    public AuthResponse refresh(RefreshRequest req) {
+        JwtPrincipal principal;
+        try {
+            principal = jwtUtil.parseRefreshToken(req.getRefreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (revocationService.isRevoked(principal)) {
+            throw new RuntimeException("Refresh token revoked");
+        }
+
+        // Role, group and status are re-read so the new access token reflects them
+        User user = userRepo.findById(principal.userId())
+                .orElseThrow(() -> new RuntimeException("User Not found"));
+        if(user.getStatus() == UserStatus.SUSPENDED) {
+            throw new RuntimeException("Account suspended");
+        }
+        return issueTokens(user);
+    }
+
+    private AuthResponse issueTokens(User user) {
+        String token = jwtUtil.generateToken(user.getId(), user.getRole().name(), groupIdOf(user));
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
+        return new AuthResponse(token, refreshToken, user);
+    }
+
+    private Long groupIdOf(User user) {
+        return user.getGroup() != null ? user.getGroup().getId() : null;
     }
 
     public void changeUserStatus(Long userId, UserStatus newStatus, String reason) {
@@ -62,6 +114,10 @@ public class AuthService {
         UserStatus oldStatus = user.getStatus();
         user.setStatus(newStatus);
         userRepo.save(user);
+
+        if (newStatus == UserStatus.SUSPENDED && oldStatus != newStatus) {
+            revocationService.revokeAllTokens(userId, "SUSPENDED");
+        }
         
         // Send status change notification if status actually changed
         if (oldStatus != newStatus) {
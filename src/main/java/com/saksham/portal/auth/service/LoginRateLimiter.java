@@ -0,0 +1,225 @@
+package com.saksham.portal.auth.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saksham.portal.auth.config.LoginThrottleProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Token-bucket throttle for login attempts, keyed by username and by client IP.
+ *
+ * Its job is to protect the BCrypt pool: every login costs a full hash, so an
+ * attacker (or a retry loop) must not be able to spend unlimited CPU.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the GCRA "theoretical
+ * arrival time", updated with a CAS loop, so checks are lock-free and allocate
+ * nothing once the bucket exists. Buckets live in a size-bounded Caffeine cache
+ * and expire once idle long enough to be full again, so memory stays bounded
+ * however many usernames or addresses are tried. A rejection carries the real
+ * wait until the next attempt is allowed as {@code Retry-After}.
+ *
+ * Behind a load balancer every peer address is the balancer's, so the client
+ * address is taken from {@code X-Forwarded-For} when the peer is one of
+ * {@code auth.login-throttle.trusted-proxies}: the nearest hop that is not a
+ * trusted proxy is the client. Without trusted proxies the header is ignored,
+ * since clients can forge it.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final LoginThrottleProperties properties;
+    private final Bucket usernameBuckets;
+    private final Bucket ipBuckets;
+    private final List<Network> trustedProxies;
+
+    public LoginRateLimiter(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.usernameBuckets = new Bucket("username", properties.getUsernameCapacity(),
+                properties.getUsernameRefill(), properties.getMaxTrackedKeys(), meterRegistry);
+        this.ipBuckets = new Bucket("ip", properties.getIpCapacity(),
+                properties.getIpRefill(), properties.getMaxTrackedKeys(), meterRegistry);
+        this.trustedProxies = properties.getTrustedProxies().stream()
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .map(Network::parse)
+                .toList();
+    }
+
+    /**
+     * Consumes one attempt for both the IP and the username.
+     * Throws 429 with {@code Retry-After} when either bucket is empty.
+     */
+    public void checkLoginAllowed(String username, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            long wait = ipBuckets.tryAcquire(clientIp, now);
+            if (wait > 0) {
+                throw new Throttled("Too many login attempts from this address", wait);
+            }
+        }
+        if (username != null) {
+            long wait = usernameBuckets.tryAcquire(username.toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                throw new Throttled("Too many login attempts for this account", wait);
+            }
+        }
+    }
+
+    /**
+     * Address the IP bucket is keyed on: the peer address, or the client named in
+     * {@code X-Forwarded-For} when the peer is a trusted proxy.
+     */
+    public String clientAddress(HttpServletRequest request) {
+        String peer = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || !isTrustedProxy(peer)) {
+            return peer;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                return hop;
+            }
+        }
+        return peer;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (trustedProxies.isEmpty() || address == null) {
+            return false;
+        }
+        // Only literals are parsed, so a forged header never triggers a DNS lookup
+        if (!IPV4.matcher(address).matches() && !IPV6.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            byte[] bytes = InetAddress.getByName(address).getAddress();
+            return trustedProxies.stream().anyMatch(network -> network.contains(bytes));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 429 carrying the time until the bucket admits the next attempt.
+     */
+    private static final class Throttled extends ResponseStatusException {
+
+        private final long retryAfterSeconds;
+
+        Throttled(String reason, long waitNanos) {
+            super(HttpStatus.TOO_MANY_REQUESTS, reason);
+            this.retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            return headers;
+        }
+    }
+
+    /**
+     * An address or CIDR range from {@code trusted-proxies}.
+     */
+    private record Network(byte[] address, int prefixLength) {
+
+        static Network parse(String entry) {
+            int slash = entry.indexOf('/');
+            String host = slash < 0 ? entry : entry.substring(0, slash);
+            if (!IPV4.matcher(host).matches() && !IPV6.matcher(host).matches()) {
+                throw new IllegalArgumentException("auth.login-throttle.trusted-proxies: not an IP address: " + entry);
+            }
+            try {
+                byte[] address = InetAddress.getByName(host).getAddress();
+                int prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(entry.substring(slash + 1));
+                return new Network(address, prefixLength);
+            } catch (UnknownHostException | NumberFormatException e) {
+                throw new IllegalArgumentException("auth.login-throttle.trusted-proxies: invalid entry " + entry, e);
+            }
+        }
+
+        boolean contains(byte[] candidate) {
+            if (candidate.length != address.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (candidate[i] != address[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = (0xFF << (8 - remainingBits)) & 0xFF;
+            return (candidate[fullBytes] & mask) == (address[fullBytes] & mask);
+        }
+    }
+
+    static final class Bucket {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Cache<String, AtomicLong> arrivals;
+        private final Counter rejected;
+
+        Bucket(String dimension, int capacity, Duration refill, long maxKeys, MeterRegistry meterRegistry) {
+            this.intervalNanos = refill.toNanos();
+            this.toleranceNanos = intervalNanos * Math.max(0, capacity - 1);
+            // An untouched bucket is full again after capacity * refill; evicting it then loses nothing
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(refill.multipliedBy(Math.max(1, capacity)))
+                    .build();
+            this.rejected = Counter.builder("auth.login.throttled")
+                    .tag("key", dimension)
+                    .description("Login attempts rejected by the throttle")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Takes one attempt at {@code now} (a {@link System#nanoTime()} reading).
+         * Returns 0 when allowed, otherwise the nanoseconds until an attempt would be.
+         */
+        long tryAcquire(String key, long now) {
+            AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            while (true) {
+                long current = arrival.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                if (base - now > toleranceNanos) {
+                    rejected.increment();
+                    return base - now - toleranceNanos;
+                }
+                if (arrival.compareAndSet(current, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.saksham.portal.auth.service;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.saksham.portal.common.util.BloomFilter;
+import com.saksham.portal.users.repository.UserRepository;
+import com.saksham.portal.users.repository.UserRepository.IdentityView;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory Bloom filter of every registered username and email.
+ *
+ * A "no" lets registration skip the uniqueness query entirely; a "maybe" (a real
+ * duplicate or a ~1% false positive) falls through to the single indexed lookup
+ * in {@link UserRepository#findByUsernameOrEmail}. Keys are lower-cased to match
+ * MySQL's case-insensitive collation; anything the filter still misses is caught
+ * by the unique constraints at insert time.
+ *
+ * Rebuilt from the users table at startup and updated on every insert or rename.
+ * Old values are never removed, which only costs an occasional extra query.
+ */
+@Service
+public class RegisteredIdentityFilter {
+
+    private final UserRepository userRepository;
+    private final BloomFilter identities;
+
+    public RegisteredIdentityFilter(
+            UserRepository userRepository,
+            @Value("${auth.registration.expected-users:100000}") long expectedUsers) {
+        this.userRepository = userRepository;
+        // Two keys per user: username and email
+        this.identities = new BloomFilter(expectedUsers * 2, 0.01);
+    }
+
+    @PostConstruct
+    public void load() {
+        for (IdentityView identity : userRepository.findAllIdentities()) {
+            add(identity.getUsername(), identity.getEmail());
+        }
+    }
+
+    public boolean mightExist(String username, String email) {
+        return (username != null && identities.mightContain(key("u:", username)))
+                || (email != null && identities.mightContain(key("e:", email)));
+    }
+
+    public void add(String username, String email) {
+        if (username != null) {
+            identities.put(key("u:", username));
+        }
+        if (email != null) {
+            identities.put(key("e:", email));
+        }
+    }
+
+    private static String key(String namespace, String value) {
+        return namespace + value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,141 @@
+package com.saksham.portal.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.auth.model.TokenRevocation;
+import com.saksham.portal.auth.repository.TokenRevocationRepository;
+import com.saksham.portal.common.util.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user token revocation checked on every authenticated request.
+ *
+ * The persisted deny-list ({@code token_revocations}) is small: a row only needs
+ * to live as long as the longest token it can affect (the refresh-token
+ * lifetime). It is mirrored in memory as a Bloom filter of revoked user ids plus
+ * an exact map of cutoffs. The common case, a user who was never revoked, is
+ * answered by the Bloom filter alone with no locking and no allocation; only
+ * "maybe" answers consult the map.
+ *
+ * Revocations made on other nodes are picked up by polling {@code revoked_at}
+ * every {@code auth.revocation.sync-interval}, so a suspended user keeps access
+ * on another node for at most that long.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final Duration COMMIT_MARGIN = Duration.ofSeconds(10);
+
+    private final TokenRevocationRepository revocationRepository;
+    private final long refreshLifetimeMillis;
+    private final Duration syncInterval;
+    private final BloomFilter revokedUsers;
+    private final ConcurrentHashMap<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("token-revocation-sync").daemon(true).factory());
+    private volatile LocalDateTime syncedUpTo;
+
+    public TokenRevocationService(
+            TokenRevocationRepository revocationRepository,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshLifetimeMillis,
+            @Value("${auth.revocation.expected-entries:10000}") long expectedEntries,
+            @Value("${auth.revocation.sync-interval:PT5S}") Duration syncInterval) {
+        this.revocationRepository = revocationRepository;
+        this.refreshLifetimeMillis = refreshLifetimeMillis;
+        this.syncInterval = syncInterval;
+        this.revokedUsers = new BloomFilter(expectedEntries, 0.01);
+    }
+
+    @PostConstruct
+    public void load() {
+        // Rows older than any live token are dead weight
+        revocationRepository.deleteRevokedBefore(LocalDateTime.now().minus(Duration.ofMillis(refreshLifetimeMillis)));
+        syncedUpTo = LocalDateTime.now();
+        for (TokenRevocation revocation : revocationRepository.findAll()) {
+            remember(revocation.getUserId(), toInstant(revocation.getRevokedAt()));
+        }
+        poller.scheduleWithFixedDelay(this::sync,
+                syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Rejects every token issued to the user up to now. Tokens issued after this
+     * call (e.g. after the account is reactivated and the user logs in again) are unaffected.
+     * Takes effect in memory only once the surrounding transaction commits, so a
+     * rolled-back suspension or role change leaves the user's tokens valid.
+     */
+    @Transactional
+    public void revokeAllTokens(Long userId, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        revocationRepository.save(TokenRevocation.builder()
+                .userId(userId)
+                .revokedAt(now)
+                .reason(reason)
+                .build());
+        Instant cutoff = toInstant(now);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(userId, cutoff);
+            }
+        });
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        Long userId = principal.userId();
+        if (!revokedUsers.mightContain(userId)) {
+            return false;
+        }
+        Instant cutoff = revokedBefore.get(userId);
+        if (cutoff == null) {
+            return false; // Bloom false positive
+        }
+        // iat has second precision, so a token from the revocation second is rejected too
+        return principal.issuedAt() == null || !principal.issuedAt().isAfter(cutoff);
+    }
+
+    private void sync() {
+        try {
+            LocalDateTime pollStartedAt = LocalDateTime.now();
+            // revoked_at is stamped before commit, so the window overlaps by the commit margin
+            for (TokenRevocation revocation : revocationRepository.findRevokedSince(syncedUpTo.minus(COMMIT_MARGIN))) {
+                remember(revocation.getUserId(), toInstant(revocation.getRevokedAt()));
+            }
+            syncedUpTo = pollStartedAt;
+        } catch (Exception e) {
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void remember(Long userId, Instant cutoff) {
+        revokedBefore.merge(userId, cutoff, (existing, incoming) -> incoming.isAfter(existing) ? incoming : existing);
+        revokedUsers.put(userId);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,137 @@
+package com.saksham.portal.auth.util;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECPoint;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ES256 signing keys addressed by {@code kid}.
+ *
+ * One key signs new tokens; every key that may still have live tokens stays in
+ * the ring as a verification key. Portal nodes share the signing key through
+ * {@code jwt.es256.private-key}; edge services only need the public half, which
+ * is published at {@code /.well-known/jwks.json}. With {@code jwt.algorithm=ES256}
+ * the key pair is required: a key generated per node would make tokens fail on
+ * every other node.
+ *
+ * Rotation is a deployment: configure the new pair under a new key id and list
+ * the previous public key in {@code jwt.es256.trusted-keys} as
+ * {@code kid:base64(X.509)}. Drop that entry once the refresh-token lifetime has
+ * passed.
+ */
+@Component
+public class JwtKeyRing {
+
+    private final Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+    private final SigningKey current;
+
+    public JwtKeyRing(
+            @Value("${jwt.algorithm:HS256}") String algorithm,
+            @Value("${jwt.es256.key-id:}") String keyId,
+            @Value("${jwt.es256.private-key:}") String privateKey,
+            @Value("${jwt.es256.public-key:}") String publicKey,
+            @Value("${jwt.es256.trusted-keys:}") List<String> trustedKeys) {
+        try {
+            if (privateKey.isBlank()) {
+                if ("ES256".equalsIgnoreCase(algorithm)) {
+                    throw new IllegalStateException("jwt.algorithm=ES256 requires jwt.es256.private-key and "
+                            + "jwt.es256.public-key, shared by every portal node");
+                }
+                // HS256 signs with jwt.secret; the ring only verifies rotated-out ES256 tokens
+                current = null;
+            } else {
+                if (publicKey.isBlank()) {
+                    throw new IllegalArgumentException("jwt.es256.public-key is required with jwt.es256.private-key");
+                }
+                PrivateKey signing = keyFactory()
+                        .generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey.trim())));
+                PublicKey verification = keyFactory()
+                        .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey.trim())));
+                String kid = keyId.isBlank() ? "es256-default" : keyId;
+                verificationKeys.put(kid, verification);
+                current = new SigningKey(kid, signing);
+            }
+            for (String entry : trustedKeys) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("jwt.es256.trusted-keys entries must be kid:base64");
+                }
+                PublicKey key = keyFactory().generatePublic(
+                        new X509EncodedKeySpec(Base64.getDecoder().decode(entry.substring(separator + 1).trim())));
+                verificationKeys.putIfAbsent(entry.substring(0, separator).trim(), key);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid ES256 key configuration", e);
+        }
+    }
+
+    public String currentKeyId() {
+        return signingKey().kid();
+    }
+
+    public PrivateKey currentSigningKey() {
+        return signingKey().privateKey();
+    }
+
+    private SigningKey signingKey() {
+        if (current == null) {
+            throw new IllegalStateException("No ES256 signing key configured");
+        }
+        return current;
+    }
+
+    /** Returns null for an unknown kid. */
+    public PublicKey verificationKey(String kid) {
+        return kid != null ? verificationKeys.get(kid) : null;
+    }
+
+    /** Public keys in JWK form (RFC 7517 / RFC 7518 section 6.2). */
+    public List<Map<String, String>> toJwks() {
+        List<Map<String, String>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> {
+            ECPoint point = ((ECPublicKey) key).getW();
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("alg", "ES256");
+            jwk.put("use", "sig");
+            jwk.put("kid", kid);
+            jwk.put("x", coordinate(point.getAffineX()));
+            jwk.put("y", coordinate(point.getAffineY()));
+            keys.add(jwk);
+        });
+        return keys;
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int copy = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - copy, fixed, 32 - copy, copy);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static KeyFactory keyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC");
+    }
+
+    private record SigningKey(String kid, PrivateKey privateKey) {
+    }
+}
@@ -8,58 +8,147 @@ import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.saksham.portal.auth.dto.JwtPrincipal;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtil {
-    
+
     @Value("${jwt.secret}")
     private String SECRET;
-    
+
+    // Lifetime of access tokens; keep short now that clients can refresh
     @Value("${jwt.expiration}")
     private long EXPIRATION;
 
-    private Key getSigningKey() {
-        return new SecretKeySpec(SECRET.getBytes(), SignatureAlgorithm.HS256.getJcaName());
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long REFRESH_EXPIRATION;
+
+    // HS256 (shared secret) or ES256 (key ring, verifiable through /.well-known/jwks.json)
+    @Value("${jwt.algorithm:HS256}")
+    private String ALGORITHM;
+
+    private static final String TOKEN_TYPE = "typ";
+    private static final String REFRESH = "refresh";
+
+    private final JwtKeyRing keyRing;
+
+    // Built once: the key and parser are immutable and safe to share across threads
+    private Key hmacKey;
+    private boolean asymmetric;
+    private JwtParser jwtParser;
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @PostConstruct
+    void init() {
+        hmacKey = new SecretKeySpec(SECRET.getBytes(), SignatureAlgorithm.HS256.getJcaName());
+        asymmetric = SignatureAlgorithm.ES256.getValue().equalsIgnoreCase(ALGORITHM);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Tokens without a kid predate ES256 and stay valid until they expire
+                        if (header.getKeyId() == null) {
+                            return hmacKey;
+                        }
+                        Key key = keyRing.verificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
 
-    public String generateToken(Long userId, String role) {
-        return Jwts.builder()
+    private JwtBuilder signed(JwtBuilder builder) {
+        if (asymmetric) {
+            return builder
+                    .setHeaderParam(JwsHeader.KEY_ID, keyRing.currentKeyId())
+                    .signWith(keyRing.currentSigningKey(), SignatureAlgorithm.ES256);
+        }
+        return builder.signWith(hmacKey, SignatureAlgorithm.HS256);
+    }
+
+    public String generateToken(Long userId, String role, Long groupId) {
+        return signed(Jwts.builder()
                 .setSubject(userId.toString())
                 .claim("role", role) // Add role as a claim
+                .claim("groupId", groupId) // Null (omitted) when the user has no group
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION)))
+                .compact();
+    }
+
+    /**
+     * Long-lived token accepted only by the refresh endpoint. It carries no role or
+     * group so a refresh always re-reads them from the database.
+     */
+    public String generateRefreshToken(Long userId) {
+        return signed(Jwts.builder()
+                .setSubject(userId.toString())
+                .claim(TOKEN_TYPE, REFRESH)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION)))
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry exactly once and returns the claims we use.
+     * Throws a {@link io.jsonwebtoken.JwtException} (or {@link IllegalArgumentException})
+     * when the token is malformed, tampered with or expired.
+     */
+    public JwtPrincipal parse(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (REFRESH.equals(claims.get(TOKEN_TYPE))) {
+            throw new UnsupportedJwtException("Refresh tokens cannot be used as access tokens");
+        }
+        return toPrincipal(claims);
+    }
+
+    public JwtPrincipal parseRefreshToken(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (!REFRESH.equals(claims.get(TOKEN_TYPE))) {
+            throw new UnsupportedJwtException("Not a refresh token");
+        }
+        return toPrincipal(claims);
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get("role", String.class),
+                claims.get("groupId", Long.class),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration != null ? expiration.toInstant() : null
+        );
+    }
+
     public Long extractUserId(String token) {
-        return Long.valueOf(Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject());
+        return parse(token).userId();
     }
+
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+        return parse(token).role();
     }
 
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getExpiration();
-            return expiration.before(new Date());
+            return parse(token).isExpired();
         } catch (Exception e) {
             return true; // Consider invalid tokens as expired
         }
@@ -67,11 +156,11 @@ public class JwtUtil {
 
     public boolean isTokenValid(String token, Long userId) {
         try {
-            Long extractedUserId = extractUserId(token);
-            return extractedUserId.equals(userId) && !isTokenExpired(token);
+            JwtPrincipal principal = parse(token);
+            return principal.userId().equals(userId) && !principal.isExpired();
         } catch (Exception e) {
             return false; // Invalid token format or signature
         }
     }
-    
+
 }
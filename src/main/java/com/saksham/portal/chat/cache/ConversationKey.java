@@ -0,0 +1,26 @@
+package com.saksham.portal.chat.cache;
+
+import com.saksham.portal.chat.event.MessageSentEvent;
+
+/**
+ * Identifies one conversation: a group chat, or a student's onboarding thread
+ * (their messages with every admin, the same rows the onboarding queries match).
+ */
+public record ConversationKey(
+    Long groupId,
+    Long userId
+) {
+    public static ConversationKey group(Long groupId) {
+        return new ConversationKey(groupId, null);
+    }
+
+    public static ConversationKey onboarding(Long userId) {
+        return new ConversationKey(null, userId);
+    }
+
+    public static ConversationKey of(MessageSentEvent event) {
+        return event.isGroupMessage()
+                ? group(event.message().groupId())
+                : onboarding(event.onboardingUserId());
+    }
+}
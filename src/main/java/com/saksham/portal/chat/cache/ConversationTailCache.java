@@ -0,0 +1,262 @@
+package com.saksham.portal.chat.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saksham.portal.chat.dto.ChatCursor;
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.event.MessageSentEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps the newest {@code chat.tail.size} messages of recently read
+ * conversations in memory.
+ *
+ * A conversation's tail is loaded with one query the first time a page of it is
+ * read, and every message committed afterwards is appended by the
+ * {@link MessageSentEvent} listener, so the latest page, polling with
+ * {@code after} and short scroll-backs are answered without touching the
+ * database. Anything the tail cannot answer exactly (older history, an
+ * evicted conversation) returns null and the caller falls back to
+ * {@code MessageRepository}.
+ *
+ * Total size is bounded by {@code chat.tail.max-memory} (estimated from message
+ * lengths); the least recently used conversations are evicted first. Tails only
+ * see messages sent through this node, so the cache is opt-in
+ * ({@code chat.tail.enabled}) and refuses to start with
+ * {@code app.cluster.multi-node=true}.
+ *
+ * Hit/miss/eviction counters are published as {@code cache.*} meters tagged
+ * {@code cache=chat.tail}.
+ */
+@Component
+public class ConversationTailCache {
+
+    private static final String CACHE_NAME = "chat.tail";
+
+    private static final Comparator<MessageResponse> ORDER =
+            Comparator.comparing(MessageResponse::timestamp).thenComparing(MessageResponse::id);
+
+    private final int capacity;
+    private final Cache<ConversationKey, Tail> cache;
+
+    public ConversationTailCache(
+            MeterRegistry meterRegistry,
+            @Value("${chat.tail.enabled:false}") boolean enabled,
+            @Value("${chat.tail.size:100}") int capacity,
+            @Value("${chat.tail.max-memory:64MB}") DataSize maxMemory,
+            @Value("${app.cluster.multi-node:false}") boolean multiNode) {
+        this.capacity = Math.max(1, capacity);
+
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        if (multiNode) {
+            throw new IllegalStateException(
+                    "chat.tail.enabled cannot be combined with app.cluster.multi-node: tails would miss messages sent through other nodes");
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((ConversationKey key, Tail tail) -> tail.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Answers a keyset page from memory, loading the conversation's tail through
+     * {@code latest} (newest first, limited by the Pageable) if it is not cached.
+     * Rows come back in the order the matching repository query would return
+     * them: newest first without a cursor or with {@code before}, oldest first
+     * with {@code after}. Returns null when the tail does not cover the request.
+     */
+    public List<MessageResponse> page(ConversationKey key, ChatCursor before, ChatCursor after, int limit,
+                                      Function<Pageable, List<MessageResponse>> latest) {
+        if (cache == null) {
+            return null;
+        }
+        Tail tail = cache.get(key, k -> load(latest));
+        if (after != null) {
+            return tail.after(after, limit);
+        }
+        if (before != null) {
+            return tail.before(before, limit);
+        }
+        return tail.latest(limit);
+    }
+
+    /**
+     * Whole conversation oldest first, or null unless an already cached tail holds all of it.
+     */
+    public List<MessageResponse> all(ConversationKey key) {
+        if (cache == null) {
+            return null;
+        }
+        Tail tail = cache.getIfPresent(key);
+        return tail != null ? tail.all() : null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        if (cache == null) {
+            return;
+        }
+        // Cold conversations are skipped; they are loaded from the database on the next read.
+        // Going through compute lets Caffeine re-weigh the tail after it grows.
+        cache.asMap().computeIfPresent(ConversationKey.of(event), (key, tail) -> {
+            tail.append(event.message());
+            return tail;
+        });
+    }
+
+    private Tail load(Function<Pageable, List<MessageResponse>> latest) {
+        List<MessageResponse> rows = new ArrayList<>(latest.apply(PageRequest.of(0, capacity)));
+        Collections.reverse(rows);
+        return new Tail(capacity, rows, rows.size() < capacity);
+    }
+
+    private static int compare(ChatCursor cursor, MessageResponse message) {
+        int byTime = cursor.timestamp().compareTo(message.timestamp());
+        return byTime != 0 ? byTime : cursor.id().compareTo(message.id());
+    }
+
+    private static int estimateBytes(MessageResponse message) {
+        // Record, boxed ids and timestamp, plus two bytes per content char
+        return 160 + (message.content() != null ? 2 * message.content().length() : 0);
+    }
+
+    /**
+     * Ring buffer of the newest messages of one conversation, oldest first.
+     * It always holds a contiguous run ending at the newest message;
+     * {@code complete} means the run also starts at the conversation's first one.
+     */
+    static final class Tail {
+
+        private final MessageResponse[] ring;
+        private int start;
+        private int size;
+        private boolean complete;
+        private int bytes;
+
+        Tail(int capacity, List<MessageResponse> oldestFirst, boolean complete) {
+            this.ring = new MessageResponse[capacity];
+            this.complete = complete;
+            for (MessageResponse message : oldestFirst) {
+                ring[size++] = message;
+                bytes += estimateBytes(message);
+            }
+        }
+
+        synchronized int weight() {
+            return 256 + bytes;
+        }
+
+        synchronized void append(MessageResponse message) {
+            // Commits can land slightly out of order, so walk back to the right slot
+            int pos = size;
+            while (pos > 0 && ORDER.compare(get(pos - 1), message) > 0) {
+                pos--;
+            }
+            if (pos > 0 && get(pos - 1).id().equals(message.id())) {
+                return; // Already read by the load that created this tail
+            }
+            if (pos == 0 && !complete) {
+                return; // Older than everything held; keeping it would leave a gap
+            }
+            if (size == ring.length) {
+                if (pos == 0) {
+                    return;
+                }
+                bytes -= estimateBytes(get(0));
+                ring[start] = null;
+                start = (start + 1) % ring.length;
+                size--;
+                pos--;
+                complete = false;
+            }
+            for (int i = size; i > pos; i--) {
+                set(i, get(i - 1));
+            }
+            set(pos, message);
+            size++;
+            bytes += estimateBytes(message);
+        }
+
+        synchronized List<MessageResponse> latest(int limit) {
+            if (size < limit && !complete) {
+                return null;
+            }
+            return newestFirst(size, limit);
+        }
+
+        synchronized List<MessageResponse> before(ChatCursor cursor, int limit) {
+            int end = size;
+            while (end > 0 && compare(cursor, get(end - 1)) <= 0) {
+                end--;
+            }
+            if (end < limit && !complete) {
+                return null;
+            }
+            return newestFirst(end, limit);
+        }
+
+        synchronized List<MessageResponse> after(ChatCursor cursor, int limit) {
+            if (!complete && (size == 0 || compare(cursor, get(0)) < 0)) {
+                return null; // Messages between the cursor and the tail are not held
+            }
+            int from = size;
+            while (from > 0 && compare(cursor, get(from - 1)) < 0) {
+                from--;
+            }
+            List<MessageResponse> rows = new ArrayList<>(Math.min(limit, size - from));
+            for (int i = from; i < size && rows.size() < limit; i++) {
+                rows.add(get(i));
+            }
+            return rows;
+        }
+
+        synchronized List<MessageResponse> all() {
+            if (!complete) {
+                return null;
+            }
+            List<MessageResponse> rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rows.add(get(i));
+            }
+            return rows;
+        }
+
+        private List<MessageResponse> newestFirst(int end, int limit) {
+            List<MessageResponse> rows = new ArrayList<>(Math.min(limit, end));
+            for (int i = end - 1; i >= 0 && rows.size() < limit; i--) {
+                rows.add(get(i));
+            }
+            return rows;
+        }
+
+        private MessageResponse get(int index) {
+            return ring[(start + index) % ring.length];
+        }
+
+        private void set(int index, MessageResponse message) {
+            ring[(start + index) % ring.length] = message;
+        }
+    }
+}
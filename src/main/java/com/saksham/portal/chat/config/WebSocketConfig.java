@@ -0,0 +1,91 @@
+package com.saksham.portal.chat.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import com.saksham.portal.chat.websocket.StompAuthChannelInterceptor;
+
+/**
+ * STOMP over WebSocket at {@code /ws}. Clients CONNECT with their JWT and
+ * subscribe to {@code /topic/groups/{groupId}} or
+ * {@code /topic/onboarding/{userId}}; see ChatTopics.
+ *
+ * A single node uses the in-memory broker. With several nodes
+ * ({@code app.cluster.multi-node=true}) each node only sees what it commits
+ * itself, so {@code chat.websocket.relay.enabled} must then point the nodes at
+ * a shared STOMP broker (for example ActiveMQ Artemis) that fans every message out to
+ * all of them; startup fails otherwise.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthChannelInterceptor authInterceptor;
+
+    @Value("${app.frontend.url}")
+    private String frontendUrl;
+
+    @Value("${app.cluster.multi-node:false}")
+    private boolean multiNode;
+
+    @Value("${chat.websocket.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${chat.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${chat.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${chat.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    public WebSocketConfig(StompAuthChannelInterceptor authInterceptor) {
+        this.authInterceptor = authInterceptor;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns(frontendUrl);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        if (relayEnabled) {
+            // Clients never talk to the broker directly; every session relays with the portal's credentials
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else if (multiNode) {
+            throw new IllegalStateException(
+                    "app.cluster.multi-node requires chat.websocket.relay.enabled: the in-memory STOMP broker only reaches subscribers of this node");
+        } else {
+            registry.enableSimpleBroker("/topic");
+        }
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+    }
+}
@@ -1,7 +1,6 @@
 package com.saksham.portal.chat.controller;
 
-import java.util.List;
-
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,45 +9,72 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.annotation.CurrentUser;
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.chat.dto.MarkReadRequest;
 import com.saksham.portal.chat.dto.MessageRequest;
 import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.service.ChatSearchIndex;
+import com.saksham.portal.chat.service.ChatStreamService;
 import com.saksham.portal.chat.service.MessageService;
+import com.saksham.portal.chat.service.ReadStateService;
 
 @RestController
 @RequestMapping("api/chat")
 public class MessageController {
 
     private final MessageService messageService;
-    private final JwtUtil jwtUtil;
 
-    public MessageController(MessageService messageService, JwtUtil jwtUtil) {
+    private final ChatStreamService chatStreamService;
+
+    private final ChatSearchIndex chatSearchIndex;
+
+    private final ReadStateService readStateService;
+
+    public MessageController(MessageService messageService, ChatStreamService chatStreamService,
+                             ChatSearchIndex chatSearchIndex, ReadStateService readStateService) {
         this.messageService = messageService;
-        this.jwtUtil = jwtUtil;
+        this.chatStreamService = chatStreamService;
+        this.chatSearchIndex = chatSearchIndex;
+        this.readStateService = readStateService;
     }
 
     @PostMapping("/send")
     public ResponseEntity<?> sendMessage(
             @RequestBody MessageRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long senderId = jwtUtil.extractUserId(token);
+            Long senderId = principal.userId();
             MessageResponse response = messageService.sendMessage(senderId, request);
             return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            // e.g. 503 while the write-behind queue is full
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Message Failed to send: " + e.getMessage());
         }
     }
 
+    // All chat reads accept optional keyset paging: ?limit=N for the latest page,
+    // then ?before=<olderCursor> to scroll back or ?after=<newerCursor> to poll.
+    // Without any of them the full conversation is returned as before.
+
     @GetMapping("/onboarding")
     public ResponseEntity<?> getOnboardingChat(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
+            if (isPaged(before, after, limit)) {
+                return ResponseEntity.ok(messageService.getOnboardingChatPage(userId, before, after, limit));
+            }
             return ResponseEntity.ok(messageService.getOnboardingChat(userId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to get onboarding chat: " + e.getMessage());
@@ -56,37 +82,135 @@ public class MessageController {
     }
 
     @GetMapping("/group-chat")
-    public ResponseEntity<List<MessageResponse>> getGroupChat(
-            @RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getGroupChat(
+            @CurrentUser JwtPrincipal principal,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
-            return ResponseEntity.ok(messageService.getGroupChat(userId));
+            if (isPaged(before, after, limit)) {
+                return ResponseEntity.ok(messageService.getGroupChatPage(principal, before, after, limit));
+            }
+            return ResponseEntity.ok(messageService.getGroupChat(principal));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // SSE fallback for clients that cannot use the /ws STOMP endpoint.
+    // Reconnects send Last-Event-ID (a message id) to receive what they missed.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(
+            @CurrentUser JwtPrincipal principal,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return chatStreamService.open(principal, lastEventId);
+    }
+
+    // Unread badges come from maintained counters, never from reading the conversation
+    @GetMapping("/unread")
+    public ResponseEntity<?> getUnreadCounts(@CurrentUser JwtPrincipal principal) {
+        try {
+            return ResponseEntity.ok(readStateService.unread(principal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get unread counts: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<?> markRead(
+            @RequestBody MarkReadRequest request,
+            @CurrentUser JwtPrincipal principal) {
+        try {
+            return ResponseEntity.ok(readStateService.markRead(principal, request.groupId(), request.userId()));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to mark chat as read: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/read-receipts")
+    public ResponseEntity<?> getReadReceipts(
+            @CurrentUser JwtPrincipal principal,
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(required = false) Long userId) {
+        try {
+            return ResponseEntity.ok(readStateService.receipts(principal, groupId, userId));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get read receipts: " + e.getMessage());
+        }
+    }
+
     // Admin endpoints
     @GetMapping("/onboarding/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<MessageResponse>> getOnboardingChatByUserId(
-            @PathVariable Long userId) {
+    public ResponseEntity<?> getOnboardingChatByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (isPaged(before, after, limit)) {
+                return ResponseEntity.ok(messageService.getOnboardingChatPageByUserId(userId, before, after, limit));
+            }
             return ResponseEntity.ok(messageService.getOnboardingChatByUserId(userId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // Every onboarding thread with its last message and unread count, most recent first
+    @GetMapping("/onboarding-inbox")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getOnboardingInbox(
+            @CurrentUser JwtPrincipal principal,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(readStateService.onboardingInbox(principal.userId(), page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get onboarding inbox: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/group/{groupId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<MessageResponse>> getGroupChatByGroupId(
-            @PathVariable Long groupId) {
+    public ResponseEntity<?> getGroupChatByGroupId(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (isPaged(before, after, limit)) {
+                return ResponseEntity.ok(messageService.getGroupChatPageByGroupId(groupId, before, after, limit));
+            }
             return ResponseEntity.ok(messageService.getGroupChatByGroupId(groupId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // Keyword search over all chats, or one group (groupId) or onboarding thread (userId)
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchMessages(
+            @RequestParam String q,
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(chatSearchIndex.search(q, groupId, userId, page, size));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Search failed: " + e.getMessage());
+        }
+    }
+
+    private boolean isPaged(String before, String after, Integer limit) {
+        return before != null || after != null || limit != null;
+    }
 }
\ No newline at end of file
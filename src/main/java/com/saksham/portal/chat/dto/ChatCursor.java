@@ -0,0 +1,39 @@
+package com.saksham.portal.chat.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a conversation ordered by (timestamp, id).
+ *
+ * Clients treat the encoded form as opaque; the id breaks ties between messages
+ * sent in the same instant so no message is skipped or repeated across pages.
+ */
+public record ChatCursor(
+    LocalDateTime timestamp,
+    Long id
+) {
+    public static ChatCursor of(MessageResponse message) {
+        return new ChatCursor(message.timestamp(), message.id());
+    }
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChatCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ChatCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid chat cursor");
+        }
+    }
+}
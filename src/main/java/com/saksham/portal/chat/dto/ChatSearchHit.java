@@ -0,0 +1,7 @@
+package com.saksham.portal.chat.dto;
+
+public record ChatSearchHit(
+    MessageResponse message,
+    double score
+) {
+}
@@ -0,0 +1,15 @@
+package com.saksham.portal.chat.dto;
+
+import java.util.List;
+
+/**
+ * One page of search hits, best match first. {@code total} counts every
+ * message that matched, across all pages.
+ */
+public record ChatSearchResult(
+    List<ChatSearchHit> hits,
+    int total,
+    int page,
+    int size
+) {
+}
@@ -0,0 +1,11 @@
+package com.saksham.portal.chat.dto;
+
+/**
+ * Conversation to mark as read: a group, or an onboarding thread by student id.
+ * Students may leave both empty to mean their own onboarding thread.
+ */
+public record MarkReadRequest(
+    Long groupId,
+    Long userId
+) {
+}
@@ -0,0 +1,18 @@
+package com.saksham.portal.chat.dto;
+
+import java.util.List;
+
+/**
+ * One page of a conversation, oldest message first.
+ *
+ * Pass {@code olderCursor} as {@code before} to scroll back and
+ * {@code newerCursor} as {@code after} to poll for new messages. {@code hasMore}
+ * tells whether more messages exist in the direction that was requested.
+ */
+public record MessagePage(
+    List<MessageResponse> messages,
+    String olderCursor,
+    String newerCursor,
+    boolean hasMore
+) {
+}
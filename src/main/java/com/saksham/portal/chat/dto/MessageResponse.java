@@ -2,8 +2,7 @@ package com.saksham.portal.chat.dto;
 
 import java.time.LocalDateTime;
 
-import com.saksham.portal.groups.model.Group;
-import com.saksham.portal.users.model.User;
+import com.saksham.portal.chat.model.Message;
 
 public record MessageResponse(
     Long id,
@@ -13,4 +12,14 @@ public record MessageResponse(
     String content,
     LocalDateTime timestamp
 ) { 
+    public static MessageResponse fromEntity(Message message) {
+        return new MessageResponse(
+            message.getId(),
+            message.getSender()!=null ? message.getSender().getId() : null,
+            message.getReceiver()!=null ? message.getReceiver().getId() : null,
+            message.getGroup()!=null ? message.getGroup().getId(): null,
+            message.getContent(),
+            message.getTimestamp()
+        );
+    }
 }
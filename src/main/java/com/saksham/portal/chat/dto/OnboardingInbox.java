@@ -0,0 +1,11 @@
+package com.saksham.portal.chat.dto;
+
+import java.util.List;
+
+public record OnboardingInbox(
+    List<OnboardingInboxEntry> conversations,
+    int page,
+    int size,
+    long total
+) {
+}
@@ -0,0 +1,20 @@
+package com.saksham.portal.chat.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One student's onboarding thread as shown in the admin inbox. {@code unread}
+ * is relative to the admin asking; {@code assignedAdminId} is who answers the
+ * student (null until their first message).
+ */
+public record OnboardingInboxEntry(
+    Long userId,
+    String username,
+    Long lastMessageId,
+    Long lastSenderId,
+    String lastMessagePreview,
+    LocalDateTime lastMessageAt,
+    Long unread,
+    Long assignedAdminId
+) {
+}
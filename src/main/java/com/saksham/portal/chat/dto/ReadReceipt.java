@@ -0,0 +1,10 @@
+package com.saksham.portal.chat.dto;
+
+import java.time.LocalDateTime;
+
+public record ReadReceipt(
+    Long userId,
+    Long lastReadMessageId,
+    LocalDateTime readAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.saksham.portal.chat.dto;
+
+/**
+ * Unread messages in one conversation ({@code group:<id>} or {@code user:<id>})
+ * for the calling user. {@code lastReadMessageId} is null if they never read it.
+ */
+public record UnreadCount(
+    String conversation,
+    Long unread,
+    Long lastReadMessageId,
+    Long lastMessageId
+) {
+}
@@ -0,0 +1,21 @@
+package com.saksham.portal.chat.event;
+
+import java.util.List;
+
+import com.saksham.portal.common.enums.EmailType;
+
+/**
+ * Email fan-out for one chat message, collected inside the send transaction and
+ * delivered by ChatNotificationListener after commit.
+ *
+ * {@code type} is GROUP_MESSAGE or DIRECT_MESSAGE; {@code groupName} is null
+ * for direct messages.
+ */
+public record ChatNotificationEvent(
+    EmailType type,
+    List<String> recipientEmails,
+    String senderName,
+    String groupName,
+    String content
+) {
+}
@@ -0,0 +1,20 @@
+package com.saksham.portal.chat.event;
+
+import com.saksham.portal.chat.dto.MessageResponse;
+
+/**
+ * Published by MessageService for every saved message. Listeners that push to
+ * clients must run after commit so nobody sees a message that was rolled back.
+ *
+ * {@code onboardingUserId} is the student side of an onboarding conversation
+ * (null for group messages); it names the conversation independently of which
+ * admin answered.
+ */
+public record MessageSentEvent(
+    MessageResponse message,
+    Long onboardingUserId
+) {
+    public boolean isGroupMessage() {
+        return message.groupId() != null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.saksham.portal.chat.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals for one conversation, kept up to date by every send so unread
+ * counts never need a COUNT over {@code messages}.
+ *
+ * The key is {@code group:<groupId>} for a group chat and
+ * {@code user:<studentId>} for an onboarding thread, whichever admin answered.
+ * The last message's sender and a short preview are kept alongside, which makes
+ * the admin onboarding inbox a single query over this table.
+ */
+@Entity
+@Table(name = "chat_conversations", indexes =
+    @Index(name = "idx_chat_conversations_last_message_at", columnList = "last_message_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChatConversation {
+
+    @Id
+    @Column(name = "conversation_key", length = 40)
+    private String conversationKey;
+
+    // Set for onboarding threads only
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "message_count", nullable = false)
+    private Long messageCount;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    public static final int PREVIEW_LENGTH = 200;
+
+    public static String groupKey(Long groupId) {
+        return "group:" + groupId;
+    }
+
+    public static String onboardingKey(Long studentId) {
+        return "user:" + studentId;
+    }
+}
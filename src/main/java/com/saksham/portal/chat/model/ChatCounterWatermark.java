@@ -0,0 +1,30 @@
+package com.saksham.portal.chat.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Highest message id whose conversation has been recounted from
+ * {@code messages} into {@code chat_conversations}. A single row, advanced by
+ * {@code ReadStateService} each time it starts.
+ */
+@Entity
+@Table(name = "chat_counter_watermark")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatCounterWatermark {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "counted_through", nullable = false)
+    private Long countedThrough;
+}
@@ -0,0 +1,49 @@
+package com.saksham.portal.chat.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far one user has read one conversation. {@code readCount} is the
+ * conversation's message count at that moment, so the user's unread count is
+ * simply {@code ChatConversation.messageCount - readCount}.
+ */
+@Entity
+@Table(name = "chat_read_states", uniqueConstraints =
+    @UniqueConstraint(name = "uk_chat_read_states_user_conversation", columnNames = {"user_id", "conversation_key"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChatReadState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "conversation_key", length = 40, nullable = false)
+    private String conversationKey;
+
+    @Column(name = "read_count", nullable = false)
+    private Long readCount;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+}
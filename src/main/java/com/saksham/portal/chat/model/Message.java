@@ -5,10 +5,13 @@ import java.time.LocalDateTime;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.groups.model.Group;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -19,7 +22,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name= "messages")
+@Table(name= "messages", indexes = {
+    // Keyset pagination: conversation filter followed by the (timestamp, id) sort key
+    @Index(name = "idx_messages_group_ts", columnList = "group_id, timestamp, id"),
+    @Index(name = "idx_messages_sender_receiver_ts", columnList = "sender_id, receiver_id, timestamp, id"),
+    @Index(name = "idx_messages_receiver_sender_ts", columnList = "receiver_id, sender_id, timestamp, id"),
+    @Index(name = "idx_messages_onboarding_ts", columnList = "onboarding_user_id, timestamp, id"),
+    // Search index catch-up across all conversations
+    @Index(name = "idx_messages_ts", columnList = "timestamp, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -30,18 +41,23 @@ public class Message {
     @GeneratedValue(strategy=GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Lazy: chat reads project the FK ids (see MessageRepository), never the entities
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
     private User sender;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id")
     private User receiver;//only used for onboarding chat
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id")
     private Group group; //null for onboarding
 
+    // Student side of an onboarding message, whichever admin sent or received it; null for group messages
+    @Column(name = "onboarding_user_id")
+    private Long onboardingUserId;
+
     private String content;
 
     private LocalDateTime timestamp;
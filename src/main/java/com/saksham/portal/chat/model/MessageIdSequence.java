@@ -0,0 +1,27 @@
+package com.saksham.portal.chat.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Next unreserved message id for write-behind mode. Read and advanced only by
+ * {@code MessageIdAllocator}, one block of ids at a time.
+ */
+@Entity
+@Table(name = "message_id_sequence")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MessageIdSequence {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextVal;
+}
@@ -0,0 +1,37 @@
+package com.saksham.portal.chat.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The admin who answers a student's onboarding chat. Chosen once, on the
+ * student's first message, and kept until that admin stops being an admin.
+ */
+@Entity
+@Table(name = "onboarding_assignments", indexes =
+    @Index(name = "idx_onboarding_assignments_admin", columnList = "admin_id"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OnboardingAssignment {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Column(name = "assigned_at", nullable = false)
+    private LocalDateTime assignedAt;
+}
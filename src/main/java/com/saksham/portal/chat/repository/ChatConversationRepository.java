@@ -0,0 +1,122 @@
+package com.saksham.portal.chat.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saksham.portal.chat.dto.OnboardingInboxEntry;
+import com.saksham.portal.chat.model.ChatConversation;
+
+public interface ChatConversationRepository extends JpaRepository<ChatConversation, String> {
+
+    // One atomic upsert per conversation and transaction (MySQL), adding the
+    // messages it committed; creating the row on the first message of a
+    // conversation cannot race with a concurrent first message. MySQL applies
+    // the assignments left to right, so the "is this the newest message" checks
+    // must come before last_message_id is overwritten.
+    @Modifying
+    @Query(value = "INSERT INTO chat_conversations (conversation_key, student_id, message_count, " +
+        "last_message_id, last_message_at, last_sender_id, last_message_preview) " +
+        "VALUES (:key, :studentId, :added, :messageId, :sentAt, :senderId, :preview) " +
+        "ON DUPLICATE KEY UPDATE message_count = message_count + VALUES(message_count), " +
+        "student_id = COALESCE(student_id, VALUES(student_id)), " +
+        "last_sender_id = IF(VALUES(last_message_id) >= COALESCE(last_message_id, 0), VALUES(last_sender_id), last_sender_id), " +
+        "last_message_preview = IF(VALUES(last_message_id) >= COALESCE(last_message_id, 0), VALUES(last_message_preview), last_message_preview), " +
+        "last_message_at = IF(VALUES(last_message_id) >= COALESCE(last_message_id, 0), VALUES(last_message_at), last_message_at), " +
+        "last_message_id = GREATEST(COALESCE(last_message_id, 0), VALUES(last_message_id))",
+        nativeQuery = true)
+    int recordMessages(@Param("key") String conversationKey,
+                       @Param("studentId") Long studentId,
+                       @Param("added") long added,
+                       @Param("messageId") Long messageId,
+                       @Param("sentAt") LocalDateTime sentAt,
+                       @Param("senderId") Long senderId,
+                       @Param("preview") String preview);
+
+    // Admin onboarding inbox: every thread with its last message and the admin's unread count,
+    // newest first, in one query over the summary table
+
+    @Query("SELECT new com.saksham.portal.chat.dto.OnboardingInboxEntry(" +
+        "u.id, u.username, c.lastMessageId, c.lastSenderId, c.lastMessagePreview, c.lastMessageAt, " +
+        "c.messageCount - COALESCE(s.readCount, 0), a.adminId) " +
+        "FROM ChatConversation c JOIN User u ON u.id = c.studentId " +
+        "LEFT JOIN OnboardingAssignment a ON a.studentId = c.studentId " +
+        "LEFT JOIN ChatReadState s ON s.conversationKey = c.conversationKey AND s.userId = :adminId " +
+        "WHERE c.studentId IS NOT NULL " +
+        "ORDER BY c.lastMessageAt DESC, c.lastMessageId DESC")
+    List<OnboardingInboxEntry> findOnboardingInbox(@Param("adminId") Long adminId, Pageable page);
+
+    long countByStudentIdIsNotNull();
+
+    // Backfill from messages sent before the counters existed, or by nodes that did not count them
+
+    // Rows written before student_id and the last-message columns were added
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chat_conversations SET student_id = CAST(SUBSTRING(conversation_key, 6) AS UNSIGNED) " +
+        "WHERE conversation_key LIKE 'user:%' AND student_id IS NULL", nativeQuery = true)
+    int fillMissingStudentIds();
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE chat_conversations c JOIN messages m ON m.id = c.last_message_id " +
+        "SET c.last_sender_id = m.sender_id, c.last_message_preview = LEFT(m.content, " +
+        ChatConversation.PREVIEW_LENGTH + ") WHERE c.last_sender_id IS NULL", nativeQuery = true)
+    int fillMissingLastMessages();
+
+    // Recount of conversations that received messages since the last start (see ReadStateService)
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM Message m")
+    long findMaxMessageId();
+
+    @Query("SELECT DISTINCT m.group.id FROM Message m " +
+        "WHERE m.group IS NOT NULL AND m.id > :afterId AND m.id <= :throughId")
+    List<Long> findGroupsWithMessagesBetween(@Param("afterId") long afterId, @Param("throughId") long throughId);
+
+    @Query("SELECT DISTINCT m.onboardingUserId FROM Message m " +
+        "WHERE m.onboardingUserId IS NOT NULL AND m.id > :afterId AND m.id <= :throughId")
+    List<Long> findOnboardingStudentsBetween(@Param("afterId") long afterId, @Param("throughId") long throughId);
+
+    // Taken before counting: a send that has not committed yet waits for the recount to
+    // commit and then adds itself; one that has committed is included in the count
+    @Query(value = "SELECT conversation_key FROM chat_conversations WHERE conversation_key = :key FOR UPDATE",
+        nativeQuery = true)
+    List<String> lockConversation(@Param("key") String conversationKey);
+
+    @Query("SELECT COUNT(m) AS messages, MAX(m.id) AS lastMessageId, MAX(m.timestamp) AS lastMessageAt " +
+        "FROM Message m WHERE m.group.id = :groupId")
+    ConversationTally tallyGroup(@Param("groupId") Long groupId);
+
+    @Query("SELECT COUNT(m) AS messages, MAX(m.id) AS lastMessageId, MAX(m.timestamp) AS lastMessageAt " +
+        "FROM Message m WHERE m.onboardingUserId = :studentId")
+    ConversationTally tallyOnboarding(@Param("studentId") Long studentId);
+
+    // Overwrites the totals; a changed last message clears its sender and preview for fillMissingLastMessages
+    @Modifying
+    @Query(value = "INSERT INTO chat_conversations (conversation_key, student_id, message_count, " +
+        "last_message_id, last_message_at) VALUES (:key, :studentId, :messages, :lastMessageId, :lastMessageAt) " +
+        "ON DUPLICATE KEY UPDATE message_count = VALUES(message_count), " +
+        "student_id = COALESCE(student_id, VALUES(student_id)), " +
+        "last_sender_id = IF(last_message_id <=> VALUES(last_message_id), last_sender_id, NULL), " +
+        "last_message_preview = IF(last_message_id <=> VALUES(last_message_id), last_message_preview, NULL), " +
+        "last_message_at = VALUES(last_message_at), " +
+        "last_message_id = VALUES(last_message_id)",
+        nativeQuery = true)
+    int replaceTally(@Param("key") String conversationKey,
+                     @Param("studentId") Long studentId,
+                     @Param("messages") long messages,
+                     @Param("lastMessageId") Long lastMessageId,
+                     @Param("lastMessageAt") LocalDateTime lastMessageAt);
+
+    interface ConversationTally {
+        Long getMessages();
+        Long getLastMessageId();
+        LocalDateTime getLastMessageAt();
+    }
+}
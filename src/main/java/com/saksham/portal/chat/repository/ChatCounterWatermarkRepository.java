@@ -0,0 +1,20 @@
+package com.saksham.portal.chat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saksham.portal.chat.model.ChatCounterWatermark;
+
+public interface ChatCounterWatermarkRepository extends JpaRepository<ChatCounterWatermark, Integer> {
+
+    // Never moves back when two nodes finish their recount out of order (MySQL)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO chat_counter_watermark (id, counted_through) VALUES (" + ChatCounterWatermark.ID + ", :through) " +
+        "ON DUPLICATE KEY UPDATE counted_through = GREATEST(counted_through, VALUES(counted_through))",
+        nativeQuery = true)
+    int advance(@Param("through") long through);
+}
@@ -0,0 +1,42 @@
+package com.saksham.portal.chat.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.saksham.portal.chat.dto.UnreadCount;
+import com.saksham.portal.chat.model.ChatReadState;
+
+public interface ChatReadStateRepository extends JpaRepository<ChatReadState, Long> {
+
+    String SELECT_UNREAD = "SELECT new com.saksham.portal.chat.dto.UnreadCount(" +
+        "c.conversationKey, c.messageCount - COALESCE(s.readCount, 0), s.lastReadMessageId, c.lastMessageId) " +
+        "FROM ChatConversation c LEFT JOIN ChatReadState s " +
+        "ON s.conversationKey = c.conversationKey AND s.userId = :userId ";
+
+    // Copies the conversation's current totals into the user's read state (MySQL upsert)
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_states (user_id, conversation_key, read_count, last_read_message_id, read_at) " +
+        "SELECT :userId, c.conversation_key, c.message_count, c.last_message_id, :readAt " +
+        "FROM chat_conversations c WHERE c.conversation_key = :key " +
+        "ON DUPLICATE KEY UPDATE read_count = VALUES(read_count), " +
+        "last_read_message_id = VALUES(last_read_message_id), read_at = VALUES(read_at)",
+        nativeQuery = true)
+    int markRead(@Param("userId") Long userId,
+                 @Param("key") String conversationKey,
+                 @Param("readAt") LocalDateTime readAt);
+
+    @Query(SELECT_UNREAD + "WHERE c.conversationKey IN :keys")
+    List<UnreadCount> findUnread(@Param("userId") Long userId, @Param("keys") Collection<String> keys);
+
+    @Query(SELECT_UNREAD + "WHERE c.conversationKey LIKE 'user:%' " +
+        "AND c.messageCount > COALESCE(s.readCount, 0) ORDER BY c.lastMessageAt DESC")
+    List<UnreadCount> findUnreadOnboarding(@Param("userId") Long userId);
+
+    List<ChatReadState> findByConversationKeyOrderByLastReadMessageIdDesc(String conversationKey);
+}
@@ -1,24 +1,122 @@
 package com.saksham.portal.chat.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.saksham.portal.chat.dto.MessageResponse;
 import com.saksham.portal.chat.model.Message;
 
 public interface MessageRepository extends JpaRepository<Message, Long>{
 
-    @Query("SELECT m FROM Message m " +
-        "WHERE (m.sender.id = :userId AND m.receiver.id = :adminId) " +
-        "   OR (m.receiver.id = :userId AND m.sender.id = :adminId) " +
+    // Chat reads project straight into MessageResponse. m.sender.id, m.receiver.id and
+    // m.group.id resolve to the FK columns, so no User or Group row is joined or loaded.
+    String SELECT_RESPONSE = "SELECT new com.saksham.portal.chat.dto.MessageResponse(" +
+        "m.id, m.sender.id, m.receiver.id, m.group.id, m.content, m.timestamp) FROM Message m ";
+
+    // An onboarding thread belongs to the student: it holds their messages to and
+    // from every admin, whichever one OnboardingRouter assigned them to. Each message
+    // stores that student as onboarding_user_id, so the thread pages on one index.
+
+    @Query(SELECT_RESPONSE +
+        "WHERE m.onboardingUserId = :userId " +
         "ORDER BY m.timestamp ASC")
-    List<Message> findOnboardingChat(@Param("userId") Long userId,
-                                    @Param("adminId") Long adminId);
+    List<MessageResponse> findOnboardingChat(@Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE + "WHERE m.group.id = :groupId ORDER BY m.timestamp ASC")
+    List<MessageResponse> findGroupChat(@Param("groupId") Long groupId);
+
+    // Keyset pages over (timestamp, id); the Pageable only carries the limit.
+    // "Latest" and "before" read newest-first, "after" reads oldest-first.
+
+    @Query(SELECT_RESPONSE + "WHERE m.group.id = :groupId " +
+        "ORDER BY m.timestamp DESC, m.id DESC")
+    List<MessageResponse> findGroupChatLatest(@Param("groupId") Long groupId, Pageable page);
+
+    @Query(SELECT_RESPONSE + "WHERE m.group.id = :groupId " +
+        "AND (m.timestamp < :ts OR (m.timestamp = :ts AND m.id < :id)) " +
+        "ORDER BY m.timestamp DESC, m.id DESC")
+    List<MessageResponse> findGroupChatBefore(@Param("groupId") Long groupId,
+                                              @Param("ts") LocalDateTime timestamp,
+                                              @Param("id") Long id,
+                                              Pageable page);
+
+    @Query(SELECT_RESPONSE + "WHERE m.group.id = :groupId " +
+        "AND (m.timestamp > :ts OR (m.timestamp = :ts AND m.id > :id)) " +
+        "ORDER BY m.timestamp ASC, m.id ASC")
+    List<MessageResponse> findGroupChatAfter(@Param("groupId") Long groupId,
+                                             @Param("ts") LocalDateTime timestamp,
+                                             @Param("id") Long id,
+                                             Pageable page);
+
+    @Query(SELECT_RESPONSE +
+        "WHERE m.onboardingUserId = :userId " +
+        "ORDER BY m.timestamp DESC, m.id DESC")
+    List<MessageResponse> findOnboardingChatLatest(@Param("userId") Long userId, Pageable page);
+
+    @Query(SELECT_RESPONSE +
+        "WHERE m.onboardingUserId = :userId " +
+        "AND (m.timestamp < :ts OR (m.timestamp = :ts AND m.id < :id)) " +
+        "ORDER BY m.timestamp DESC, m.id DESC")
+    List<MessageResponse> findOnboardingChatBefore(@Param("userId") Long userId,
+                                                   @Param("ts") LocalDateTime timestamp,
+                                                   @Param("id") Long id,
+                                                   Pageable page);
+
+    @Query(SELECT_RESPONSE +
+        "WHERE m.onboardingUserId = :userId " +
+        "AND (m.timestamp > :ts OR (m.timestamp = :ts AND m.id > :id)) " +
+        "ORDER BY m.timestamp ASC, m.id ASC")
+    List<MessageResponse> findOnboardingChatAfter(@Param("userId") Long userId,
+                                                  @Param("ts") LocalDateTime timestamp,
+                                                  @Param("id") Long id,
+                                                  Pageable page);
+
+    // Replay for stream reconnects (Last-Event-ID is a message id)
+
+    @Query(SELECT_RESPONSE + "WHERE m.group.id = :groupId AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageResponse> findGroupChatSinceId(@Param("groupId") Long groupId,
+                                               @Param("afterId") Long afterId,
+                                               Pageable page);
+
+    @Query(SELECT_RESPONSE + "WHERE m.onboardingUserId = :userId AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageResponse> findOnboardingChatSinceId(@Param("userId") Long userId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable page);
+
+    @Query(SELECT_RESPONSE + "WHERE m.group IS NULL AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageResponse> findAllOnboardingSinceId(@Param("afterId") Long afterId, Pageable page);
+
+    // Search index: rebuild scan, catch-up with other nodes and loading the messages of one result page
+
+    @Query(SELECT_RESPONSE + "WHERE m.id > :afterId ORDER BY m.id ASC")
+    List<MessageResponse> findAllSinceId(@Param("afterId") Long afterId, Pageable page);
+
+    @Query(SELECT_RESPONSE +
+        "WHERE m.timestamp > :ts OR (m.timestamp = :ts AND m.id > :id) " +
+        "ORDER BY m.timestamp ASC, m.id ASC")
+    List<MessageResponse> findAllAfter(@Param("ts") LocalDateTime timestamp,
+                                       @Param("id") Long id,
+                                       Pageable page);
 
-    @Query("SELECT m FROM Message m WHERE m.group.id = :groupId ORDER BY m.timestamp ASC")
-    List<Message> findGroupChat(@Param("groupId") Long groupId);
+    @Query(SELECT_RESPONSE + "WHERE m.id IN :ids")
+    List<MessageResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
 
-    
+    // Onboarding messages written before onboarding_user_id existed, or by a node still on
+    // an older version: the student is whichever side is not an admin (MySQL, batched)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE messages SET onboarding_user_id = " +
+        "IF(sender_id IN (SELECT id FROM users WHERE role = 'ADMIN'), receiver_id, sender_id) " +
+        "WHERE group_id IS NULL AND onboarding_user_id IS NULL " +
+        "AND IF(sender_id IN (SELECT id FROM users WHERE role = 'ADMIN'), receiver_id, sender_id) IS NOT NULL " +
+        "LIMIT :batch", nativeQuery = true)
+    int fillMissingOnboardingUserIds(@Param("batch") int batch);
 }
@@ -0,0 +1,54 @@
+package com.saksham.portal.chat.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.saksham.portal.chat.model.OnboardingAssignment;
+
+public interface OnboardingAssignmentRepository extends JpaRepository<OnboardingAssignment, Long> {
+
+    // Students whose onboarding thread saw a message since the cutoff, per assigned admin
+    @Query("SELECT a.adminId AS adminId, COUNT(a) AS students FROM OnboardingAssignment a " +
+        "JOIN ChatConversation c ON c.studentId = a.studentId " +
+        "WHERE c.lastMessageAt >= :since GROUP BY a.adminId")
+    List<AdminLoad> countActiveByAdmin(@Param("since") LocalDateTime since);
+
+    // Leaves an existing row untouched, so the first node to assign a student wins (MySQL)
+    @Modifying
+    @Query(value = "INSERT INTO onboarding_assignments (student_id, admin_id, assigned_at) " +
+        "VALUES (:studentId, :adminId, :assignedAt) ON DUPLICATE KEY UPDATE student_id = student_id",
+        nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") Long studentId,
+                       @Param("adminId") Long adminId,
+                       @Param("assignedAt") LocalDateTime assignedAt);
+
+    // Moves the student only if they are still with the admin this node replaced
+    @Modifying
+    @Query("UPDATE OnboardingAssignment a SET a.adminId = :adminId, a.assignedAt = :assignedAt " +
+        "WHERE a.studentId = :studentId AND a.adminId = :previous")
+    int reassign(@Param("studentId") Long studentId,
+                 @Param("previous") Long previous,
+                 @Param("adminId") Long adminId,
+                 @Param("assignedAt") LocalDateTime assignedAt);
+
+    // Seeds assignments from conversations that predate routing: latest message per direction
+    @Query("SELECT m.sender.id AS senderId, m.receiver.id AS receiverId, MAX(m.id) AS lastMessageId " +
+        "FROM Message m WHERE m.group IS NULL AND m.receiver IS NOT NULL GROUP BY m.sender.id, m.receiver.id")
+    List<OnboardingPair> findOnboardingPairs();
+
+    interface AdminLoad {
+        Long getAdminId();
+        Long getStudents();
+    }
+
+    interface OnboardingPair {
+        Long getSenderId();
+        Long getReceiverId();
+        Long getLastMessageId();
+    }
+}
@@ -0,0 +1,51 @@
+package com.saksham.portal.chat.service;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.saksham.portal.chat.event.ChatNotificationEvent;
+import com.saksham.portal.common.config.AsyncConfig;
+import com.saksham.portal.common.enums.EmailType;
+import com.saksham.portal.common.service.NotificationDigestService;
+import com.saksham.portal.common.service.NotificationEmailService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends chat notification emails after the message has committed, on the
+ * bounded notification executor, so SMTP latency and failures never reach the
+ * sender's request or hold its DB connection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatNotificationListener {
+
+    private final NotificationEmailService notificationEmailService;
+    private final NotificationDigestService digestService;
+
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChatNotification(ChatNotificationEvent event) {
+        for (String recipient : event.recipientEmails()) {
+            // One bad address or SMTP hiccup must not stop the rest of the fan-out
+            try {
+                if (digestService.isEnabled()) {
+                    // Coalesced with the recipient's other chat notifications in this window
+                    digestService.enqueue(event.type(), recipient, event.senderName(), event.groupName(), event.content());
+                } else if (event.type() == EmailType.GROUP_MESSAGE) {
+                    notificationEmailService.sendGroupMessageNotification(
+                        recipient, event.groupName(), event.senderName(), event.content());
+                } else {
+                    notificationEmailService.sendDirectMessageNotification(
+                        recipient, event.senderName(), event.content());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to send {} notification to {}: {}", event.type(), recipient, e.getMessage());
+            }
+        }
+    }
+}
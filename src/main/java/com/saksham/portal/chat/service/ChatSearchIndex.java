@@ -0,0 +1,391 @@
+package com.saksham.portal.chat.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.chat.dto.ChatSearchHit;
+import com.saksham.portal.chat.dto.ChatSearchResult;
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.event.MessageSentEvent;
+import com.saksham.portal.chat.repository.MessageRepository;
+import com.saksham.portal.users.service.AdminDirectory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process inverted index over message content for admin keyword search.
+ *
+ * The index is split into one shard per conversation: {@code group:<id>} for a
+ * group chat and {@code user:<id>} for a student's onboarding thread. A shard
+ * maps each term to a sorted postings list of (message id, term frequency), so a
+ * conversation-scoped search touches only that conversation's postings.
+ * Content is lower-cased and split on anything that is not a letter or digit.
+ *
+ * All query terms must match. Hits are ranked with BM25 (TF-IDF with document
+ * length normalisation, IDF taken from the hit's own shard), and only the
+ * requested page of messages is loaded from the database. The index stores ids
+ * and counts, never content.
+ *
+ * The index is rebuilt from {@code messages} in the background at startup
+ * (search answers 503 until it is done) and then kept current by an
+ * after-commit {@link MessageSentEvent} listener. That listener only hears this
+ * node's sends, so with {@code app.cluster.multi-node} the index also re-reads
+ * recently timestamped messages every {@code chat.search.catch-up-interval};
+ * messages sent through another node become searchable within that interval.
+ */
+@Slf4j
+@Service
+public class ChatSearchIndex {
+
+    private static final int REBUILD_BATCH = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // BM25 parameters (the usual defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Catch-up re-reads this far before its last run, covering commit delay and clock skew
+    private static final Duration COMMIT_MARGIN = Duration.ofSeconds(30);
+
+    private final MessageRepository messageRepo;
+    private final AdminDirectory adminDirectory;
+    private final boolean enabled;
+    private final boolean multiNode;
+    private final Duration catchUpInterval;
+
+    private final ConcurrentHashMap<String, Shard> shards = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService catchUp = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-search-catch-up").daemon(true).factory());
+    private volatile boolean ready;
+    private volatile LocalDateTime caughtUpTo;
+
+    public ChatSearchIndex(
+            MessageRepository messageRepo,
+            AdminDirectory adminDirectory,
+            @Value("${chat.search.enabled:true}") boolean enabled,
+            @Value("${app.cluster.multi-node:false}") boolean multiNode,
+            @Value("${chat.search.catch-up-interval:PT10S}") Duration catchUpInterval) {
+        this.messageRepo = messageRepo;
+        this.adminDirectory = adminDirectory;
+        this.enabled = enabled;
+        this.multiNode = multiNode;
+        this.catchUpInterval = catchUpInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("chat-search-rebuild").start(this::rebuild);
+        if (multiNode) {
+            catchUp.scheduleWithFixedDelay(this::catchUp,
+                    catchUpInterval.toMillis(), catchUpInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        if (!enabled) {
+            return;
+        }
+        MessageResponse message = event.message();
+        index(message.groupId() != null ? groupShard(message.groupId()) : userShard(event.onboardingUserId()), message);
+    }
+
+    /**
+     * Ranked search, optionally limited to one group chat or one student's
+     * onboarding thread. {@code page} is zero-based.
+     */
+    public ChatSearchResult search(String query, Long groupId, Long userId, Integer page, Integer size) {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat search is disabled");
+        }
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat search index is still being built");
+        }
+        if (groupId != null && userId != null) {
+            throw new IllegalArgumentException("Filter by groupId or userId, not both");
+        }
+        List<String> terms = tokenize(query == null ? "" : query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no words to match");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageIndex = page == null ? 0 : Math.max(0, page);
+
+        Collection<Shard> targets;
+        if (groupId != null || userId != null) {
+            Shard shard = shards.get(groupId != null ? groupShard(groupId) : userShard(userId));
+            targets = shard != null ? List.of(shard) : List.of();
+        } else {
+            targets = shards.values();
+        }
+
+        List<Scored> matches = new ArrayList<>();
+        for (Shard shard : targets) {
+            shard.search(terms, matches);
+        }
+        // Best score first; newer messages win ties
+        matches.sort(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(Comparator.comparingLong(Scored::id).reversed()));
+
+        int from = (int) Math.min((long) pageIndex * pageSize, matches.size());
+        List<Scored> window = matches.subList(from, Math.min(from + pageSize, matches.size()));
+        if (window.isEmpty()) {
+            return new ChatSearchResult(List.of(), matches.size(), pageIndex, pageSize);
+        }
+
+        Map<Long, MessageResponse> messages = messageRepo
+                .findResponsesByIdIn(window.stream().map(Scored::id).toList()).stream()
+                .collect(Collectors.toMap(MessageResponse::id, Function.identity()));
+        List<ChatSearchHit> hits = window.stream()
+                .filter(scored -> messages.containsKey(scored.id()))
+                .map(scored -> new ChatSearchHit(messages.get(scored.id()), scored.score()))
+                .toList();
+        return new ChatSearchResult(hits, matches.size(), pageIndex, pageSize);
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        caughtUpTo = LocalDateTime.now();
+        long lastId = 0;
+        int indexed = 0;
+        try {
+            List<MessageResponse> batch;
+            do {
+                batch = messageRepo.findAllSinceId(lastId, PageRequest.of(0, REBUILD_BATCH));
+                for (MessageResponse message : batch) {
+                    index(shardOf(message), message);
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).id();
+                    indexed += batch.size();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            ready = true;
+            log.info("Chat search index built: {} messages in {} conversations ({} ms)",
+                    indexed, shards.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Chat search index rebuild failed; search stays unavailable", e);
+        }
+    }
+
+    // Indexes whatever other nodes committed since the last run; messages already indexed are skipped
+    private void catchUp() {
+        if (!ready) {
+            return;
+        }
+        try {
+            LocalDateTime runStartedAt = LocalDateTime.now();
+            LocalDateTime timestamp = caughtUpTo.minus(COMMIT_MARGIN);
+            long lastId = 0;
+            List<MessageResponse> batch;
+            do {
+                batch = messageRepo.findAllAfter(timestamp, lastId, PageRequest.of(0, REBUILD_BATCH));
+                for (MessageResponse message : batch) {
+                    index(shardOf(message), message);
+                }
+                if (!batch.isEmpty()) {
+                    MessageResponse last = batch.get(batch.size() - 1);
+                    timestamp = last.timestamp();
+                    lastId = last.id();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            caughtUpTo = runStartedAt;
+        } catch (RuntimeException e) {
+            log.warn("Chat search catch-up failed: {}", e.getMessage());
+        }
+    }
+
+    private String shardOf(MessageResponse message) {
+        if (message.groupId() != null) {
+            return groupShard(message.groupId());
+        }
+        // Onboarding threads are named by their student side, whichever admin answered
+        boolean fromAdmin = adminDirectory.isAdmin(message.senderId());
+        return userShard(fromAdmin ? message.receiverId() : message.senderId());
+    }
+
+    private void index(String shardKey, MessageResponse message) {
+        if (message.content() == null) {
+            return;
+        }
+        List<String> tokens = tokenize(message.content());
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        shards.computeIfAbsent(shardKey, key -> new Shard()).add(message.id(), frequencies, tokens.size());
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && token.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String groupShard(Long groupId) {
+        return "group:" + groupId;
+    }
+
+    private static String userShard(Long userId) {
+        return "user:" + userId;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        catchUp.shutdownNow();
+    }
+
+    record Scored(long id, double score) {
+    }
+
+    /**
+     * Index of one conversation. Many searches may read at once; adds take the write lock.
+     */
+    static final class Shard {
+
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> lengths = new HashMap<>();
+        private long totalLength;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(long id, Map<String, Integer> frequencies, int length) {
+            lock.writeLock().lock();
+            try {
+                // The startup rebuild and the live listener can both see a message
+                if (lengths.putIfAbsent(id, length) != null) {
+                    return;
+                }
+                totalLength += length;
+                frequencies.forEach((term, frequency) ->
+                        postings.computeIfAbsent(term, t -> new Postings()).add(id, frequency));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void search(List<String> terms, List<Scored> out) {
+            lock.readLock().lock();
+            try {
+                List<Postings> lists = new ArrayList<>(terms.size());
+                for (String term : terms) {
+                    Postings list = postings.get(term);
+                    if (list == null) {
+                        return; // A term this conversation never used: nothing can match
+                    }
+                    lists.add(list);
+                }
+                // Walk the rarest term and probe the others
+                lists.sort(Comparator.comparingInt(Postings::size));
+
+                int documents = lengths.size();
+                double averageLength = (double) totalLength / documents;
+                double[] idf = new double[lists.size()];
+                for (int j = 0; j < idf.length; j++) {
+                    int df = lists.get(j).size();
+                    idf[j] = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                }
+
+                Postings rarest = lists.get(0);
+                candidates:
+                for (int i = 0; i < rarest.size(); i++) {
+                    long id = rarest.id(i);
+                    double norm = K1 * (1 - B + B * lengths.get(id) / averageLength);
+                    double score = 0;
+                    for (int j = 0; j < lists.size(); j++) {
+                        int tf = j == 0 ? rarest.frequency(i) : lists.get(j).frequencyOf(id);
+                        if (tf < 0) {
+                            continue candidates;
+                        }
+                        score += idf[j] * tf * (K1 + 1) / (tf + norm);
+                    }
+                    out.add(new Scored(id, score));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Message ids containing one term, kept sorted for binary search, with the
+     * term's count in each message.
+     */
+    static final class Postings {
+
+        private long[] ids = new long[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(long id, int frequency) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            // Ids arrive almost in order; commits that land late shift a few slots
+            int pos = size;
+            while (pos > 0 && ids[pos - 1] > id) {
+                ids[pos] = ids[pos - 1];
+                frequencies[pos] = frequencies[pos - 1];
+                pos--;
+            }
+            ids[pos] = id;
+            frequencies[pos] = frequency;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long id(int index) {
+            return ids[index];
+        }
+
+        int frequency(int index) {
+            return frequencies[index];
+        }
+
+        int frequencyOf(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index >= 0 ? frequencies[index] : -1;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.saksham.portal.chat.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.auth.service.TokenRevocationService;
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.event.MessageSentEvent;
+import com.saksham.portal.chat.repository.MessageRepository;
+import com.saksham.portal.groups.service.GroupMembershipTracker;
+import com.saksham.portal.users.service.AdminDirectory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events fallback for clients that cannot open a WebSocket.
+ *
+ * Streams are held by the async servlet support behind {@link SseEmitter}, so an
+ * open stream costs no Tomcat thread. Fan-out only queues the message per
+ * subscriber; each subscriber's queue is drained in order by one virtual
+ * thread at a time, so a slow client never stalls the sender's commit.
+ *
+ * Each subscriber listens on its group ({@code group:<id>}) and its onboarding
+ * thread ({@code user:<id>}); admins receive every onboarding message
+ * ({@code onboarding:all}). Event ids are message ids, so a reconnect with
+ * {@code Last-Event-ID} replays what was missed before live delivery resumes.
+ *
+ * Live events come from this node's commits. With {@code app.cluster.multi-node}
+ * the service also reads back recent messages every {@code chat.sse.poll-interval}
+ * and delivers those sent through other nodes; ids already delivered are
+ * remembered for the overlap window, so nothing goes out twice.
+ *
+ * A stream never outlives the access token that opened it, and every heartbeat
+ * re-checks the token against revocations and the caller's group; a suspended
+ * user or one who changed groups is disconnected and has to reconnect with a
+ * current token.
+ */
+@Slf4j
+@Service
+public class ChatStreamService {
+
+    private static final String ALL_ONBOARDING = "onboarding:all";
+    private static final int MAX_REPLAY = 200;
+    private static final int MAX_QUEUED = 1000;
+    private static final Object HEARTBEAT = new Object();
+    private static final int POLL_BATCH = 500;
+    // Messages are read back this far behind the last poll, to cover commit delay and clock skew
+    private static final Duration COMMIT_MARGIN = Duration.ofSeconds(10);
+
+    private final MessageRepository messageRepo;
+    private final GroupMembershipTracker membershipTracker;
+    private final TokenRevocationService revocationService;
+    private final AdminDirectory adminDirectory;
+    private final int maxConnections;
+    private final Duration timeout;
+    private final boolean multiNode;
+
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-sse-heartbeat").daemon(true).factory());
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-sse-poll").daemon(true).factory());
+    // Multi-node only: ids delivered within the poll window, with their timestamps
+    private final ConcurrentHashMap<Long, LocalDateTime> delivered = new ConcurrentHashMap<>();
+    private volatile LocalDateTime polledUpTo = LocalDateTime.now();
+
+    public ChatStreamService(
+            MessageRepository messageRepo,
+            GroupMembershipTracker membershipTracker,
+            TokenRevocationService revocationService,
+            AdminDirectory adminDirectory,
+            @Value("${chat.sse.max-connections:5000}") int maxConnections,
+            @Value("${chat.sse.timeout:PT30M}") Duration timeout,
+            @Value("${chat.sse.heartbeat:PT25S}") Duration heartbeatInterval,
+            @Value("${app.cluster.multi-node:false}") boolean multiNode,
+            @Value("${chat.sse.poll-interval:PT1S}") Duration pollInterval) {
+        this.messageRepo = messageRepo;
+        this.membershipTracker = membershipTracker;
+        this.revocationService = revocationService;
+        this.adminDirectory = adminDirectory;
+        this.maxConnections = maxConnections;
+        this.timeout = timeout;
+        this.multiNode = multiNode;
+        // Keeps proxies from closing idle streams and detects dead clients
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (multiNode) {
+            poller.scheduleWithFixedDelay(this::poll,
+                    pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public SseEmitter open(JwtPrincipal principal, Long lastEventId) {
+        // May hit the database, so resolve before taking a connection slot
+        boolean admin = "ADMIN".equals(principal.role());
+        Long groupId = membershipTracker.resolveGroupId(principal);
+        List<String> keys = new ArrayList<>();
+        if (groupId != null) {
+            keys.add("group:" + groupId);
+        }
+        keys.add(admin ? ALL_ONBOARDING : "user:" + principal.userId());
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open chat streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutFor(principal).toMillis());
+        Subscriber subscriber = new Subscriber(emitter, keys, principal, groupId);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Register before reading the backlog so nothing committed in between is lost;
+        // live events are queued until the replay has been sent
+        keys.forEach(key -> subscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber));
+
+        Replay replay;
+        try {
+            replay = lastEventId != null
+                    ? missedMessages(principal.userId(), admin, groupId, lastEventId)
+                    : new Replay(List.of(), false);
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        subscriber.startLive(replay);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        MessageResponse message = event.message();
+        if (multiNode && delivered.putIfAbsent(message.id(), message.timestamp()) != null) {
+            return; // Already read back by the poller
+        }
+        deliver(message, event.onboardingUserId());
+    }
+
+    // Ends the stream when the token expires, so the client has to reconnect with a fresh one
+    private Duration timeoutFor(JwtPrincipal principal) {
+        if (principal.expiresAt() == null) {
+            return timeout;
+        }
+        Duration remaining = Duration.between(Instant.now(), principal.expiresAt());
+        if (remaining.compareTo(timeout) >= 0) {
+            return timeout;
+        }
+        return remaining.isNegative() || remaining.isZero() ? Duration.ofMillis(1) : remaining;
+    }
+
+    /**
+     * Whether the caller may still receive this stream's messages: the token is
+     * not revoked and the group is the one the stream was opened for.
+     */
+    private boolean stillEntitled(JwtPrincipal principal, Long groupId) {
+        try {
+            return !revocationService.isRevoked(principal)
+                    && Objects.equals(membershipTracker.resolveGroupId(principal), groupId);
+        } catch (RuntimeException e) {
+            return false; // The user is gone; a reconnect reports why
+        }
+    }
+
+    public int openConnections() {
+        return connections.get();
+    }
+
+    private void deliver(MessageResponse message, Long onboardingUserId) {
+        if (message.groupId() != null) {
+            fanOut("group:" + message.groupId(), message);
+        } else {
+            fanOut("user:" + onboardingUserId, message);
+            fanOut(ALL_ONBOARDING, message);
+        }
+    }
+
+    /**
+     * Delivers messages committed through other nodes. Each run rescans from
+     * {@code COMMIT_MARGIN} before the previous one, skipping ids already sent.
+     */
+    private void poll() {
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        try {
+            if (!subscribers.isEmpty()) {
+                LocalDateTime timestamp = polledUpTo.minus(COMMIT_MARGIN);
+                long lastId = 0;
+                List<MessageResponse> batch;
+                do {
+                    batch = messageRepo.findAllAfter(timestamp, lastId, PageRequest.of(0, POLL_BATCH));
+                    for (MessageResponse message : batch) {
+                        if (delivered.putIfAbsent(message.id(), message.timestamp()) == null) {
+                            deliver(message, onboardingUserIdOf(message));
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        MessageResponse last = batch.get(batch.size() - 1);
+                        timestamp = last.timestamp();
+                        lastId = last.id();
+                    }
+                } while (batch.size() == POLL_BATCH);
+            }
+            polledUpTo = runStartedAt;
+            // Older ids can no longer come back from a rescan
+            LocalDateTime horizon = runStartedAt.minus(COMMIT_MARGIN);
+            delivered.values().removeIf(sentAt -> sentAt.isBefore(horizon));
+        } catch (RuntimeException e) {
+            log.warn("Chat stream poll failed: {}", e.getMessage());
+        }
+    }
+
+    // Onboarding threads are named by their student side, whichever admin answered
+    private Long onboardingUserIdOf(MessageResponse message) {
+        return adminDirectory.isAdmin(message.senderId()) ? message.receiverId() : message.senderId();
+    }
+
+    private void fanOut(String key, MessageResponse message) {
+        Set<Subscriber> targets = subscribers.get(key);
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.enqueue(message);
+        }
+    }
+
+    /**
+     * Messages after {@code lastEventId} in id order. Each query is capped, so
+     * when one comes back full the merged list is cut at the lower of the full
+     * queries' last ids; past that point the other query could be missing
+     * messages, and the client is told to page the rest over REST instead.
+     */
+    private Replay missedMessages(Long userId, boolean admin, Long groupId, long lastEventId) {
+        Pageable page = PageRequest.of(0, MAX_REPLAY);
+        List<List<MessageResponse>> results = new ArrayList<>();
+        if (groupId != null) {
+            results.add(messageRepo.findGroupChatSinceId(groupId, lastEventId, page));
+        }
+        results.add(admin
+                ? messageRepo.findAllOnboardingSinceId(lastEventId, page)
+                : messageRepo.findOnboardingChatSinceId(userId, lastEventId, page));
+
+        long cutoff = Long.MAX_VALUE;
+        List<MessageResponse> missed = new ArrayList<>();
+        for (List<MessageResponse> result : results) {
+            if (result.size() >= MAX_REPLAY) {
+                cutoff = Math.min(cutoff, result.get(result.size() - 1).id());
+            }
+            missed.addAll(result);
+        }
+        long limit = cutoff;
+        missed.removeIf(message -> message.id() > limit);
+        missed.sort(Comparator.comparing(MessageResponse::id));
+        return new Replay(missed, cutoff != Long.MAX_VALUE);
+    }
+
+    private void sendHeartbeats() {
+        Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+        subscribers.values().forEach(all::addAll);
+        for (Subscriber subscriber : all) {
+            subscriber.enqueue(HEARTBEAT);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        connections.decrementAndGet();
+        for (String key : subscriber.keys) {
+            subscribers.computeIfPresent(key, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        poller.shutdownNow();
+        deliveryExecutor.shutdownNow();
+    }
+
+    private record Replay(List<MessageResponse> messages, boolean truncated) {
+    }
+
+    /**
+     * One open stream. SseEmitter is not safe for concurrent sends, so messages
+     * and heartbeats go through a queue that a single task drains in order.
+     * The queue is held back until the replay is sent; live messages that were
+     * also replayed are dropped by id. A client that falls more than
+     * {@code MAX_QUEUED} events behind is disconnected and catches up by
+     * reconnecting with {@code Last-Event-ID}. Heartbeats also re-check that the
+     * caller is still entitled to the stream, on the drain task so a lookup
+     * never delays the other subscribers.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<String> keys;
+        private final JwtPrincipal principal;
+        private final Long groupId;
+        private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile Replay replay;
+        private volatile boolean live;
+        private volatile boolean closed;
+        // Written and read by the drain task only; at most MAX_REPLAY ids
+        private Set<Long> replayedIds = Set.of();
+
+        Subscriber(SseEmitter emitter, List<String> keys, JwtPrincipal principal, Long groupId) {
+            this.emitter = emitter;
+            this.keys = keys;
+            this.principal = principal;
+            this.groupId = groupId;
+        }
+
+        void enqueue(Object event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > MAX_QUEUED) {
+                fail(new IllegalStateException("Chat stream fell too far behind"));
+                return;
+            }
+            queue.add(event);
+            if (live) {
+                schedule();
+            }
+        }
+
+        void startLive(Replay replay) {
+            this.replay = replay;
+            live = true;
+            schedule();
+        }
+
+        // Returns true only for the first close, so the connection count stays exact
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            queue.clear();
+            return true;
+        }
+
+        private void schedule() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Replay pending = replay;
+                if (pending != null) {
+                    replay = null;
+                    sendReplay(pending);
+                }
+                Object event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (event == HEARTBEAT) {
+                        if (stillEntitled(principal, groupId)) {
+                            send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.complete();
+                            remove(this);
+                        }
+                    } else {
+                        MessageResponse message = (MessageResponse) event;
+                        if (!replayedIds.contains(message.id())) {
+                            send(message);
+                        }
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Something may have been queued after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void sendReplay(Replay pending) {
+            Set<Long> ids = new HashSet<>();
+            for (MessageResponse message : pending.messages()) {
+                send(message);
+                ids.add(message.id());
+            }
+            replayedIds = ids;
+            if (pending.truncated()) {
+                // The client should load anything after the last replayed id over REST
+                send(SseEmitter.event().name("truncated").data(""));
+            }
+        }
+
+        private void send(MessageResponse message) {
+            send(SseEmitter.event()
+                    .id(String.valueOf(message.id()))
+                    .name("message")
+                    .data(message));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Exception e) {
+            emitter.completeWithError(e);
+            remove(this);
+        }
+    }
+}
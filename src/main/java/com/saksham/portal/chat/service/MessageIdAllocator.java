@@ -0,0 +1,82 @@
+package com.saksham.portal.chat.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out message ids before the row is inserted, so write-behind can
+ * acknowledge a message with its final id.
+ *
+ * Ids are reserved from {@code message_id_sequence} in blocks of
+ * {@code chat.write-behind.id-block-size} (a pooled table generator): one short
+ * transaction per block, then plain increments in memory. A reservation never
+ * starts below {@code MAX(messages.id) + 1}, so it stays clear of rows inserted
+ * through the IDENTITY column while write-behind was off. Ids left in a block
+ * at shutdown are simply skipped. Blocks of different nodes interleave, which
+ * is why write-behind is single-node only.
+ */
+@Component
+public class MessageIdAllocator {
+
+    private static final String SEQUENCE = "messages";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public MessageIdAllocator(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${chat.write-behind.id-block-size:1000}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Own transaction: the row lock must not be held until the caller's transaction ends
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            next = reserve();
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    private long reserve() {
+        try {
+            return reserveBlock();
+        } catch (DuplicateKeyException e) {
+            // Another node created the sequence row first; its row is there now
+            return reserveBlock();
+        }
+    }
+
+    private long reserveBlock() {
+        Long start = transactionTemplate.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM message_id_sequence WHERE name = ? FOR UPDATE", Long.class, SEQUENCE);
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM messages", Long.class);
+            long from = Math.max(current.isEmpty() ? 1L : current.get(0), maxId + 1);
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO message_id_sequence (name, next_val) VALUES (?, ?)",
+                        SEQUENCE, from + blockSize);
+            } else {
+                jdbcTemplate.update("UPDATE message_id_sequence SET next_val = ? WHERE name = ?",
+                        from + blockSize, SEQUENCE);
+            }
+            return from;
+        });
+        return start;
+    }
+}
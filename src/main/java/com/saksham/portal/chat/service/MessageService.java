@@ -1,46 +1,103 @@
 package com.saksham.portal.chat.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.chat.cache.ConversationKey;
+import com.saksham.portal.chat.cache.ConversationTailCache;
+import com.saksham.portal.chat.dto.ChatCursor;
+import com.saksham.portal.chat.dto.MessagePage;
 import com.saksham.portal.chat.dto.MessageRequest;
 import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.event.ChatNotificationEvent;
+import com.saksham.portal.chat.event.MessageSentEvent;
+import com.saksham.portal.chat.model.ChatConversation;
 import com.saksham.portal.chat.model.Message;
 import com.saksham.portal.chat.repository.MessageRepository;
+import com.saksham.portal.common.enums.EmailType;
 import com.saksham.portal.common.enums.Role;
-import com.saksham.portal.common.service.NotificationEmailService;
 import com.saksham.portal.groups.model.Group;
 import com.saksham.portal.groups.repository.GroupRepository;
+import com.saksham.portal.groups.service.GroupMembershipTracker;
+import com.saksham.portal.users.dto.AdminContact;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.users.repository.UserRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 public class MessageService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private MessageRepository messageRepo;
     private GroupRepository groupRepo;
     private UserRepository userRepo;
-    private NotificationEmailService notificationEmailService;
+    private GroupMembershipTracker membershipTracker;
+    private ApplicationEventPublisher eventPublisher;
+    private OnboardingRouter onboardingRouter;
+    private ConversationTailCache tailCache;
+    private MessageWriteBehind writeBehind;
+    private ReadStateService readStateService;
+    private TransactionTemplate transactionTemplate;
 
     public MessageService(
                     MessageRepository messageRepo,
                     GroupRepository groupRepo,
                     UserRepository userRepo,
-                    NotificationEmailService notificationEmailService) {
+                    GroupMembershipTracker membershipTracker,
+                    ApplicationEventPublisher eventPublisher,
+                    OnboardingRouter onboardingRouter,
+                    ConversationTailCache tailCache,
+                    MessageWriteBehind writeBehind,
+                    ReadStateService readStateService,
+                    TransactionTemplate transactionTemplate) {
         this.messageRepo = messageRepo;
         this.groupRepo = groupRepo;
         this.userRepo = userRepo;
-        this.notificationEmailService = notificationEmailService;
+        this.membershipTracker = membershipTracker;
+        this.eventPublisher = eventPublisher;
+        this.onboardingRouter = onboardingRouter;
+        this.tailCache = tailCache;
+        this.writeBehind = writeBehind;
+        this.readStateService = readStateService;
+        this.transactionTemplate = transactionTemplate;
     }
 
-    @Transactional
+    /**
+     * Saves a message and publishes it. Lookups and routing run in a short
+     * transaction of their own. The insert, the unread counters and the events
+     * then commit together: in that same transaction, or with write-behind in the
+     * writer's batch transaction, so a SYNC send waits for its batch without
+     * holding a connection and nothing is counted or pushed for a message that
+     * never reached the table.
+     */
     public MessageResponse sendMessage(Long senderId, MessageRequest request) {
+        if (!writeBehind.isEnabled()) {
+            return transactionTemplate.execute(status -> {
+                Outgoing outgoing = prepare(senderId, request);
+                MessageResponse response = MessageResponse.fromEntity(messageRepo.save(outgoing.message()));
+                outgoing.onInsert().accept(response);
+                return response;
+            });
+        }
+        Outgoing outgoing = transactionTemplate.execute(status -> prepare(senderId, request));
+        return writeBehind.submit(outgoing.message(), outgoing.onInsert());
+    }
 
+    private Outgoing prepare(Long senderId, MessageRequest request) {
         User sender = userRepo.findById(senderId)
                 .orElseThrow(() -> new RuntimeException("Sender Not Found"));
 
@@ -48,23 +105,18 @@ public class MessageService {
         msg.setSender(sender);
         msg.setContent(request.content());
         msg.setTimestamp(LocalDateTime.now());
+        List<String> recipientEmails = new ArrayList<>();
 
         // Handle receiver ID based on sender role
         if(request.groupId() == null) { // This is onboarding chat
             if(sender.getRole() == Role.USER) {
-                // For regular users, automatically set receiver to admin
-                User admin = userRepo.findByRole(Role.ADMIN)
-                        .stream()
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("Admin not found"));
-                msg.setReceiver(admin);
+                // For regular users, route to the admin assigned to them (least loaded on first contact)
+                AdminContact admin = onboardingRouter.adminFor(senderId);
+                // Reference only: the FK is all the message needs, no admin row is loaded
+                msg.setReceiver(userRepo.getReferenceById(admin.id()));
                 
-                // Send email notification to admin about new direct message
-                notificationEmailService.sendDirectMessageNotification(
-                    admin.getEmail(),
-                    sender.getUsername(),
-                    request.content()
-                );
+                // Email the admin about the new direct message (after commit)
+                recipientEmails.add(admin.email());
             } else if(sender.getRole() == Role.ADMIN) {
                 // For admin, receiver ID must be provided
                 if(request.receiverId() == null) {
@@ -73,13 +125,11 @@ public class MessageService {
                 User receiver = userRepo.findById(request.receiverId())
                             .orElseThrow(()-> new RuntimeException("Receiver not found"));
                 msg.setReceiver(receiver);
+                // A reply to an unassigned student makes this admin their assignee
+                onboardingRouter.claim(receiver.getId(), senderId);
                 
-                // Send email notification to user about admin message
-                notificationEmailService.sendDirectMessageNotification(
-                    receiver.getEmail(),
-                    sender.getUsername(),
-                    request.content()
-                );
+                // Email the user about the admin message (after commit)
+                recipientEmails.add(receiver.getEmail());
             }
         }
         
@@ -87,57 +137,60 @@ public class MessageService {
             Group group = groupRepo.findById(request.groupId())
                         .orElseThrow(()-> new RuntimeException("Group not found"));
             msg.setGroup(group);
-            // Send email notifications to all group members except the sender
+            // Email all group members except the sender (after commit)
             if (group.getUsers() != null) {
                 group.getUsers().stream()
                     .filter(member -> !Objects.equals(member.getId(), senderId)) // Don't notify sender
-                    .forEach(member -> {
-                        notificationEmailService.sendGroupMessageNotification(
-                            member.getEmail(),
-                            group.getName(),
-                            sender.getUsername(),
-                            request.content()
-                        );
-                    });
+                    .forEach(member -> recipientEmails.add(member.getEmail()));
             }
         }
         
-        Message saved = messageRepo.save(msg);
-
-        return new MessageResponse(
-            saved.getId(),
-            saved.getSender().getId(),
-            saved.getReceiver()!=null ? saved.getReceiver().getId() : null,
-            saved.getGroup()!=null ? saved.getGroup().getId() : null,
-            saved.getContent(),
-            saved.getTimestamp()
-        );
+        Long onboardingUserId = null;
+        if (msg.getGroup() == null) {
+            onboardingUserId = sender.getRole() == Role.ADMIN ? msg.getReceiver().getId() : senderId;
+            msg.setOnboardingUserId(onboardingUserId);
+        }
+        Long studentId = onboardingUserId;
+        String conversationKey = msg.getGroup() != null
+                ? ChatConversation.groupKey(msg.getGroup().getId())
+                : ChatConversation.onboardingKey(onboardingUserId);
+        // Read now: the callback may run on the write-behind thread, outside this session
+        EmailType emailType = msg.getGroup() != null ? EmailType.GROUP_MESSAGE : EmailType.DIRECT_MESSAGE;
+        String senderName = sender.getUsername();
+        String groupName = msg.getGroup() != null ? msg.getGroup().getName() : null;
+
+        return new Outgoing(msg, saved -> {
+            // Unread counters commit together with the message
+            readStateService.recordMessage(conversationKey, studentId, saved);
+            // Pushed to live subscribers once the transaction commits
+            eventPublisher.publishEvent(new MessageSentEvent(saved, studentId));
+            // SMTP happens on the notification executor once the message is committed
+            if (!recipientEmails.isEmpty()) {
+                eventPublisher.publishEvent(new ChatNotificationEvent(
+                    emailType, recipientEmails, senderName, groupName, request.content()));
+            }
+        });
     }
 
-    public List<MessageResponse> getOnboardingChat(Long userId) {
-    User admin = userRepo.findByRole(Role.ADMIN)
-            .stream()
-            .findFirst()
-            .orElseThrow(() -> new RuntimeException("Admin not found"));
+    /**
+     * A message ready to insert, and what has to happen in the transaction that inserts it.
+     */
+    private record Outgoing(Message message, Consumer<MessageResponse> onInsert) {
+    }
 
-    return messageRepo.findOnboardingChat(userId, admin.getId())
-            .stream()
-            .map(this::toDto)
-            .toList();
+    public List<MessageResponse> getOnboardingChat(Long userId) {
+        return onboardingChat(userId);
     }
 
-    public List<MessageResponse> getGroupChat(Long userId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User Not Found"));
+    public List<MessageResponse> getGroupChat(JwtPrincipal principal) {
+        // Group comes from the token unless membership changed since it was issued
+        Long groupId = membershipTracker.resolveGroupId(principal);
         
-        if (user.getGroup() == null) {
+        if (groupId == null) {
             return List.of(); // Return empty list if user has no group
         }
         
-        return messageRepo.findGroupChat(user.getGroup().getId())
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return groupChat(groupId);
     }
 
     // Admin APIs
@@ -145,16 +198,8 @@ public class MessageService {
         // Verify user exists
         userRepo.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User Not Found"));
-        
-        User admin = userRepo.findByRole(Role.ADMIN)
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
 
-        return messageRepo.findOnboardingChat(userId, admin.getId())
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return onboardingChat(userId);
     }
 
     public List<MessageResponse> getGroupChatByGroupId(Long groupId) {
@@ -162,20 +207,102 @@ public class MessageService {
         groupRepo.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
         
-        return messageRepo.findGroupChat(groupId)
-                .stream()
-                .map(this::toDto)
-                .toList();
-    }
-
-    private MessageResponse toDto(Message message) {
-        return new MessageResponse(
-            message.getId(),
-            message.getSender()!=null ? message.getSender().getId() : null,
-            message.getReceiver()!=null ? message.getReceiver().getId() : null,
-            message.getGroup()!=null ? message.getGroup().getId(): null,
-            message.getContent(),
-            message.getTimestamp()
+        return groupChat(groupId);
+    }
+
+    // Full history is served from the tail cache only when the tail holds all of it
+
+    private List<MessageResponse> onboardingChat(Long userId) {
+        List<MessageResponse> cached = tailCache.all(ConversationKey.onboarding(userId));
+        return cached != null ? cached : messageRepo.findOnboardingChat(userId);
+    }
+
+    private List<MessageResponse> groupChat(Long groupId) {
+        List<MessageResponse> cached = tailCache.all(ConversationKey.group(groupId));
+        return cached != null ? cached : messageRepo.findGroupChat(groupId);
+    }
+
+    // Keyset-paginated variants of the four reads above
+
+    public MessagePage getOnboardingChatPage(Long userId, String before, String after, Integer limit) {
+        return page(ConversationKey.onboarding(userId), before, after, limit,
+                p -> messageRepo.findOnboardingChatLatest(userId, p),
+                (c, p) -> messageRepo.findOnboardingChatBefore(userId, c.timestamp(), c.id(), p),
+                (c, p) -> messageRepo.findOnboardingChatAfter(userId, c.timestamp(), c.id(), p));
+    }
+
+    public MessagePage getGroupChatPage(JwtPrincipal principal, String before, String after, Integer limit) {
+        Long groupId = membershipTracker.resolveGroupId(principal);
+        if (groupId == null) {
+            return new MessagePage(List.of(), null, null, false);
+        }
+        return groupPage(groupId, before, after, limit);
+    }
+
+    public MessagePage getOnboardingChatPageByUserId(Long userId, String before, String after, Integer limit) {
+        userRepo.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User Not Found"));
+        return getOnboardingChatPage(userId, before, after, limit);
+    }
+
+    public MessagePage getGroupChatPageByGroupId(Long groupId, String before, String after, Integer limit) {
+        groupRepo.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found"));
+        return groupPage(groupId, before, after, limit);
+    }
+
+    private MessagePage groupPage(Long groupId, String before, String after, Integer limit) {
+        return page(ConversationKey.group(groupId), before, after, limit,
+                p -> messageRepo.findGroupChatLatest(groupId, p),
+                (c, p) -> messageRepo.findGroupChatBefore(groupId, c.timestamp(), c.id(), p),
+                (c, p) -> messageRepo.findGroupChatAfter(groupId, c.timestamp(), c.id(), p));
+    }
+
+    /**
+     * Fetches one row more than the page size to learn whether another page
+     * exists, then returns the page oldest-first whichever direction was read.
+     * Recent pages come from the conversation's in-memory tail; the repository
+     * is only queried for history the tail does not hold.
+     */
+    private MessagePage page(ConversationKey key, String before, String after, Integer limit,
+                             Function<Pageable, List<MessageResponse>> latest,
+                             BiFunction<ChatCursor, Pageable, List<MessageResponse>> older,
+                             BiFunction<ChatCursor, Pageable, List<MessageResponse>> newer) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable fetch = PageRequest.of(0, size + 1);
+        ChatCursor olderThan = before != null ? ChatCursor.decode(before) : null;
+        ChatCursor newerThan = after != null ? ChatCursor.decode(after) : null;
+        boolean newestFirst = newerThan == null;
+
+        List<MessageResponse> rows = tailCache.page(key, olderThan, newerThan, size + 1, latest);
+        if (rows == null) {
+            if (newerThan != null) {
+                rows = newer.apply(newerThan, fetch);
+            } else if (olderThan != null) {
+                rows = older.apply(olderThan, fetch);
+            } else {
+                rows = latest.apply(fetch);
+            }
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<MessageResponse> window = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+        if (newestFirst) {
+            Collections.reverse(window);
+        }
+        if (window.isEmpty()) {
+            // Nothing new: hand the caller's cursors back so polling can continue from the same spot
+            return new MessagePage(List.of(), before, after, false);
+        }
+
+        return new MessagePage(
+            List.copyOf(window),
+            ChatCursor.of(window.get(0)).encode(),
+            ChatCursor.of(window.get(window.size() - 1)).encode(),
+            hasMore
         );
     }
 }
@@ -0,0 +1,355 @@
+package com.saksham.portal.chat.service;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.model.Message;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional write-behind path for chat messages ({@code chat.write-behind.enabled}).
+ *
+ * {@code Message} uses an IDENTITY key, so every save is its own INSERT and
+ * commit. Here the message gets its id from {@link MessageIdAllocator} up front,
+ * goes onto a bounded queue, and a single writer thread inserts queued messages
+ * in JDBC batches of up to {@code batch-size}, one transaction per batch. A
+ * batch is written as soon as it is full or {@code flush-interval} after its
+ * first message arrived.
+ *
+ * Each message carries a callback that runs inside the batch transaction, so
+ * counters written and events published there commit with the insert and
+ * after-commit listeners only see messages that are in the table. A batch that
+ * fails is retried until it commits. Only a batch rejected by the database
+ * itself (a constraint violation, or a failing callback) is split and written
+ * message by message, so the one bad message is the only one dropped.
+ *
+ * {@code durability} decides when the sender is answered:
+ * <ul>
+ *   <li>{@code SYNC}: after the batch holding the message has committed. Callers
+ *   share commits but never see an unpersisted message. {@link #submit} must not
+ *   be called inside a transaction, or the caller would hold a connection while
+ *   it waits for the writer. A sender that gives up waiting withdraws the
+ *   message only while it is still queued; once the writer has claimed it for a
+ *   batch the sender waits for that batch's outcome, so a retried send is never
+ *   stored twice.</li>
+ *   <li>{@code GROUP_COMMIT}: as soon as the message is queued. A crash loses at
+ *   most the messages still queued.</li>
+ * </ul>
+ * A full queue makes {@link #submit} wait up to two seconds and then answer 503.
+ *
+ * Ids come from per-node blocks, so they only increase in commit order on a
+ * single node; stream replay and the search catch-up use them as cursors.
+ * Write-behind therefore refuses to start with {@code app.cluster.multi-node}.
+ *
+ * Meters: {@code chat.write-behind.queue.size} and {@code chat.write-behind.flush}.
+ */
+@Slf4j
+@Component
+public class MessageWriteBehind {
+
+    public enum Durability { SYNC, GROUP_COMMIT }
+
+    private static final String INSERT = "INSERT INTO messages "
+            + "(id, sender_id, receiver_id, group_id, onboarding_user_id, content, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final Duration ENQUEUE_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration PERSIST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_ATTEMPTS_ON_SHUTDOWN = 3;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageIdAllocator idAllocator;
+    private final boolean enabled;
+    private final Durability durability;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Timer flushTimer;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public MessageWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MessageIdAllocator idAllocator,
+            MeterRegistry meterRegistry,
+            @Value("${chat.write-behind.enabled:false}") boolean enabled,
+            @Value("${chat.write-behind.durability:SYNC}") Durability durability,
+            @Value("${chat.write-behind.batch-size:200}") int batchSize,
+            @Value("${chat.write-behind.flush-interval:PT0.02S}") Duration flushInterval,
+            @Value("${chat.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.cluster.multi-node:false}") boolean multiNode) {
+        if (enabled && multiNode) {
+            throw new IllegalStateException(
+                    "chat.write-behind.enabled cannot be combined with app.cluster.multi-node: per-node id blocks are not ordered across nodes");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.enabled = enabled;
+        this.durability = durability;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("chat.write-behind.queue.size", queue, BlockingQueue::size)
+                .description("Chat messages accepted but not yet inserted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("chat.write-behind.flush")
+                .description("Time to insert and commit one batch of chat messages")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.writer = Thread.ofPlatform().name("chat-write-behind").daemon(true).start(this::run);
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the message its id and timestamp and queues it for insertion.
+     * {@code inBatch} runs inside the transaction that inserts it. With SYNC
+     * durability this returns only once the message is committed.
+     */
+    public MessageResponse submit(Message message, Consumer<MessageResponse> inBatch) {
+        if (durability == Durability.SYNC && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("SYNC write-behind must not wait inside a transaction");
+        }
+        message.setId(idAllocator.next());
+        message.setTimestamp(LocalDateTime.now());
+        MessageResponse response = MessageResponse.fromEntity(message);
+        Pending pending = new Pending(response, message.getOnboardingUserId(), inBatch);
+
+        try {
+            if (!running || !queue.offer(pending, ENQUEUE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat is busy, please retry shortly");
+            }
+            if (durability == Durability.SYNC) {
+                awaitPersisted(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving message", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Message could not be saved", e);
+        }
+        return response;
+    }
+
+    private static void awaitPersisted(Pending pending) throws InterruptedException, ExecutionException {
+        try {
+            pending.persisted().get(PERSIST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The database is failing; a message still queued can be withdrawn, but one
+            // the writer has claimed may yet commit, so its outcome is the answer
+            if (pending.withdraw()) {
+                throw new RuntimeException("Message could not be saved", e);
+            }
+            pending.persisted().get();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Fill the batch until it is full or the first message has waited flush-interval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: stop waiting and write whatever is left
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> queued) {
+        for (int attempt = 1; ; attempt++) {
+            // Claimed before the transaction begins; withdrawn messages are skipped
+            List<Pending> batch = queued.stream().filter(Pending::claim).toList();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+                batch.forEach(Pending::succeed);
+                return;
+            } catch (RuntimeException e) {
+                // Rolled back, so senders that time out before the next attempt may withdraw
+                batch.forEach(Pending::unclaim);
+                if (isRejected(e)) {
+                    reject(batch, e);
+                    return;
+                }
+                if (!running && attempt >= MAX_ATTEMPTS_ON_SHUTDOWN) {
+                    log.error("Dropping {} chat messages (ids {}..{}) at shutdown after {} failed inserts",
+                            batch.size(), batch.get(0).message().id(),
+                            batch.get(batch.size() - 1).message().id(), attempt, e);
+                    batch.forEach(pending -> pending.fail(e));
+                    return;
+                }
+                // Queued senders wait (and new ones get 503) until the database is back
+                log.warn("Chat message batch insert failed (attempt {}): {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(Math.min(200L * attempt, MAX_BACKOFF_MILLIS));
+                } catch (InterruptedException interrupted) {
+                    running = false;
+                }
+            }
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, pending) -> {
+            MessageResponse message = pending.message();
+            ps.setLong(1, message.id());
+            ps.setLong(2, message.senderId());
+            ps.setObject(3, message.receiverId(), Types.BIGINT);
+            ps.setObject(4, message.groupId(), Types.BIGINT);
+            ps.setObject(5, pending.onboardingUserId(), Types.BIGINT);
+            ps.setString(6, message.content());
+            ps.setObject(7, message.timestamp());
+        });
+        batch.forEach(pending -> pending.inBatch().accept(pending.message()));
+    }
+
+    // Retrying cannot help: split the batch so only the offending message is lost
+    private void reject(List<Pending> batch, RuntimeException e) {
+        if (batch.size() > 1) {
+            batch.forEach(pending -> flush(List.of(pending)));
+            return;
+        }
+        MessageResponse message = batch.get(0).message();
+        log.error("Dropping chat message {} from sender {}: {}", message.id(), message.senderId(), e.getMessage(), e);
+        batch.get(0).fail(e);
+    }
+
+    // Constraint violations and failures outside data access; anything else is treated as transient
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+                || !(e instanceof DataAccessException || e instanceof TransactionException);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            // Let the writer drain the queue before the DataSource goes away
+            writer.join(PERSIST_TIMEOUT.toMillis());
+        }
+    }
+
+    private enum State { QUEUED, WRITING, DONE, WITHDRAWN }
+
+    /**
+     * A queued message and its outcome. The writer moves it from QUEUED to
+     * WRITING before the batch transaction begins and back after a rollback; a
+     * sender that gives up can only withdraw it from QUEUED.
+     */
+    private static final class Pending {
+
+        private final MessageResponse message;
+        private final Long onboardingUserId;
+        private final Consumer<MessageResponse> inBatch;
+        private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+        private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+
+        Pending(MessageResponse message, Long onboardingUserId, Consumer<MessageResponse> inBatch) {
+            this.message = message;
+            this.onboardingUserId = onboardingUserId;
+            this.inBatch = inBatch;
+        }
+
+        MessageResponse message() {
+            return message;
+        }
+
+        Long onboardingUserId() {
+            return onboardingUserId;
+        }
+
+        Consumer<MessageResponse> inBatch() {
+            return inBatch;
+        }
+
+        CompletableFuture<Void> persisted() {
+            return persisted;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(State.QUEUED, State.WRITING);
+        }
+
+        void unclaim() {
+            state.compareAndSet(State.WRITING, State.QUEUED);
+        }
+
+        boolean withdraw() {
+            return state.compareAndSet(State.QUEUED, State.WITHDRAWN);
+        }
+
+        void succeed() {
+            state.set(State.DONE);
+            persisted.complete(null);
+        }
+
+        void fail(Throwable e) {
+            state.set(State.DONE);
+            persisted.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.saksham.portal.chat.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saksham.portal.chat.model.OnboardingAssignment;
+import com.saksham.portal.chat.repository.OnboardingAssignmentRepository;
+import com.saksham.portal.chat.repository.OnboardingAssignmentRepository.OnboardingPair;
+import com.saksham.portal.users.dto.AdminContact;
+import com.saksham.portal.users.service.AdminDirectory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Spreads onboarding chats across all admins instead of sending every one to
+ * the first.
+ *
+ * A student's first message assigns them to the admin with the lowest load
+ * (lowest id on a tie, so equal loads rotate). The assignment is persisted in
+ * {@code onboarding_assignments} and sticks: later messages go to the same
+ * admin until that admin loses the role, when the student is reassigned the
+ * same way. An admin replying to an unassigned student claims them. The
+ * database decides races between nodes: a first assignment never overwrites
+ * an existing row and a reassignment only moves a student still held by the
+ * admin it replaces, so every node ends up following the same choice.
+ *
+ * An admin's load is the number of their students whose thread had a message
+ * within {@code chat.onboarding.active-window}; there is no notion of a closed
+ * conversation, so a quiet thread stops counting instead. Loads are recounted
+ * from the database every {@code chat.onboarding.load-refresh} and bumped
+ * locally in between, so assignments made on other nodes are reflected within
+ * that interval.
+ */
+@Slf4j
+@Service
+public class OnboardingRouter {
+
+    private final OnboardingAssignmentRepository assignmentRepo;
+    private final AdminDirectory adminDirectory;
+    private final TransactionTemplate newTransaction;
+    private final Duration activeWindow;
+    private final Duration loadRefresh;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("onboarding-load-refresh").daemon(true).factory());
+
+    private final ConcurrentHashMap<Long, Long> assignments = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<Long, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    public OnboardingRouter(
+            OnboardingAssignmentRepository assignmentRepo,
+            AdminDirectory adminDirectory,
+            PlatformTransactionManager transactionManager,
+            @Value("${chat.onboarding.active-window:P14D}") Duration activeWindow,
+            @Value("${chat.onboarding.load-refresh:PT1M}") Duration loadRefresh) {
+        this.assignmentRepo = assignmentRepo;
+        this.adminDirectory = adminDirectory;
+        this.activeWindow = activeWindow;
+        this.loadRefresh = loadRefresh;
+        // Assignments commit on their own: a failed send must not undo one another node has seen
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void load() {
+        if (assignmentRepo.count() == 0) {
+            backfill();
+        }
+        refreshLoads();
+        refresher.scheduleWithFixedDelay(this::refreshLoads,
+                loadRefresh.toMillis(), loadRefresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshLoads() {
+        try {
+            ConcurrentHashMap<Long, AtomicInteger> counted = new ConcurrentHashMap<>();
+            assignmentRepo.countActiveByAdmin(LocalDateTime.now().minus(activeWindow)).forEach(load ->
+                    counted.put(load.getAdminId(), new AtomicInteger(load.getStudents().intValue())));
+            loads = counted;
+        } catch (Exception e) {
+            log.warn("Onboarding load refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps every existing conversation with the admin who last talked to the student.
+     */
+    private void backfill() {
+        Map<Long, OnboardingPair> latest = new HashMap<>();
+        for (OnboardingPair pair : assignmentRepo.findOnboardingPairs()) {
+            boolean fromAdmin = adminDirectory.isAdmin(pair.getSenderId());
+            Long studentId = fromAdmin ? pair.getReceiverId() : pair.getSenderId();
+            Long adminId = fromAdmin ? pair.getSenderId() : pair.getReceiverId();
+            if (!adminDirectory.isAdmin(adminId) || adminDirectory.isAdmin(studentId)) {
+                continue;
+            }
+            latest.merge(studentId, pair, (a, b) -> a.getLastMessageId() > b.getLastMessageId() ? a : b);
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // A row another instance has already written is left as it is
+        int seeded = newTransaction.execute(status -> latest.entrySet().stream()
+                .mapToInt(entry -> {
+                    OnboardingPair pair = entry.getValue();
+                    Long adminId = entry.getKey().equals(pair.getSenderId()) ? pair.getReceiverId() : pair.getSenderId();
+                    return assignmentRepo.insertIfAbsent(entry.getKey(), adminId, now);
+                })
+                .sum());
+        log.info("Seeded {} onboarding assignments from existing conversations", seeded);
+    }
+
+    /**
+     * The admin who answers this student, assigning the least-loaded admin on first contact.
+     */
+    public AdminContact adminFor(Long studentId) {
+        List<AdminContact> admins = adminDirectory.all();
+        if (admins.isEmpty()) {
+            throw new RuntimeException("Admin not found");
+        }
+        Long current = assignedAdminId(studentId);
+        Optional<AdminContact> assigned = find(admins, current);
+        if (assigned.isPresent()) {
+            return assigned.get();
+        }
+        AdminContact chosen = admins.stream()
+                .min(Comparator.comparingInt((AdminContact admin) -> load(admin.id()).get())
+                        .thenComparing(AdminContact::id))
+                .orElseThrow();
+        return find(admins, assign(studentId, chosen.id(), current)).orElse(chosen);
+    }
+
+    /**
+     * Records that an admin answered the student; only takes effect if nobody
+     * (or a former admin) holds the student, so assignments stay sticky.
+     */
+    public void claim(Long studentId, Long adminId) {
+        Long current = assignedAdminId(studentId);
+        if (current == null || (!current.equals(adminId) && !adminDirectory.isAdmin(current))) {
+            assign(studentId, adminId, current);
+        }
+    }
+
+    private Long assignedAdminId(Long studentId) {
+        Long cached = assignments.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        return assignmentRepo.findById(studentId)
+                .map(assignment -> {
+                    assignments.put(studentId, assignment.getAdminId());
+                    return assignment.getAdminId();
+                })
+                .orElse(null);
+    }
+
+    /** Persists the assignment and returns the admin that actually holds the student. */
+    private synchronized Long assign(Long studentId, Long adminId, Long previous) {
+        Long existing = assignments.get(studentId);
+        if (existing != null && !existing.equals(previous)) {
+            return existing; // A concurrent first message on this node got here first
+        }
+        // The write never replaces another node's choice; the row read back afterwards is the one to follow
+        Long winner = newTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (previous == null) {
+                assignmentRepo.insertIfAbsent(studentId, adminId, now);
+            } else {
+                assignmentRepo.reassign(studentId, previous, adminId, now);
+            }
+            return assignmentRepo.findById(studentId).map(OnboardingAssignment::getAdminId).orElse(adminId);
+        });
+        assignments.put(studentId, winner);
+        if (winner.equals(adminId)) {
+            if (previous != null) {
+                load(previous).decrementAndGet();
+            }
+            load(adminId).incrementAndGet();
+        }
+        return winner;
+    }
+
+    private AtomicInteger load(Long adminId) {
+        return loads.computeIfAbsent(adminId, id -> new AtomicInteger());
+    }
+
+    private static Optional<AdminContact> find(List<AdminContact> admins, Long adminId) {
+        if (adminId == null) {
+            return Optional.empty();
+        }
+        return admins.stream().filter(admin -> admin.id().equals(adminId)).findFirst();
+    }
+}
@@ -0,0 +1,295 @@
+package com.saksham.portal.chat.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.chat.dto.MessageResponse;
+import com.saksham.portal.chat.dto.OnboardingInbox;
+import com.saksham.portal.chat.dto.OnboardingInboxEntry;
+import com.saksham.portal.chat.dto.ReadReceipt;
+import com.saksham.portal.chat.dto.UnreadCount;
+import com.saksham.portal.chat.model.ChatConversation;
+import com.saksham.portal.chat.model.ChatCounterWatermark;
+import com.saksham.portal.chat.repository.ChatConversationRepository;
+import com.saksham.portal.chat.repository.ChatConversationRepository.ConversationTally;
+import com.saksham.portal.chat.repository.ChatCounterWatermarkRepository;
+import com.saksham.portal.chat.repository.ChatReadStateRepository;
+import com.saksham.portal.chat.repository.MessageRepository;
+import com.saksham.portal.groups.service.GroupMembershipTracker;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unread counts and read receipts without counting messages.
+ *
+ * Every send bumps its conversation's {@code message_count} and marks the
+ * sender as having read through it: two single-row upserts, whatever the group
+ * size. Marking read copies the current count into the reader's row, so an
+ * unread badge is one subtraction per conversation. The same rows carry each
+ * thread's last message, which is all the admin onboarding inbox reads.
+ *
+ * The conversation row is a hot spot: every send to a conversation updates it,
+ * and the update holds its row lock until commit. The upserts are therefore
+ * collected per transaction and applied just before it commits, one per
+ * conversation, in key order. A write-behind batch thus takes each row lock
+ * once, for the time of its commit, however many of its messages went to
+ * that conversation.
+ */
+@Slf4j
+@Service
+public class ReadStateService {
+
+    private static final int DEFAULT_INBOX_SIZE = 50;
+    private static final int MAX_INBOX_SIZE = 200;
+    private static final int FILL_BATCH = 10_000;
+
+    private final ChatConversationRepository conversationRepo;
+    private final ChatReadStateRepository readStateRepo;
+    private final ChatCounterWatermarkRepository watermarkRepo;
+    private final GroupMembershipTracker membershipTracker;
+    private final MessageRepository messageRepo;
+    private final TransactionTemplate transactionTemplate;
+    // Binds the transaction's pending tallies
+    private final Object pendingTalliesKey = new Object();
+
+    public ReadStateService(
+            ChatConversationRepository conversationRepo,
+            ChatReadStateRepository readStateRepo,
+            ChatCounterWatermarkRepository watermarkRepo,
+            GroupMembershipTracker membershipTracker,
+            MessageRepository messageRepo,
+            TransactionTemplate transactionTemplate) {
+        this.conversationRepo = conversationRepo;
+        this.readStateRepo = readStateRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.membershipTracker = membershipTracker;
+        this.messageRepo = messageRepo;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void start() {
+        // Before serving: onboarding pages and the recount read threads by onboarding_user_id
+        fillOnboardingUserIds();
+        Thread.ofVirtual().name("chat-counter-backfill").start(this::backfill);
+    }
+
+    private void fillOnboardingUserIds() {
+        int filled = 0;
+        int batch;
+        do {
+            batch = messageRepo.fillMissingOnboardingUserIds(FILL_BATCH);
+            filled += batch;
+        } while (batch == FILL_BATCH);
+        if (filled > 0) {
+            log.info("Attached {} onboarding messages to their student's thread", filled);
+        }
+    }
+
+    /**
+     * Recounts, from {@code messages}, every conversation that received a message
+     * after the stored watermark, then advances the watermark. This repairs
+     * counters for messages written before they existed or by nodes still on an
+     * older version during a rolling deploy; the first start recounts
+     * everything. Each conversation is recounted under its row lock in its own
+     * transaction, so concurrent sends are counted exactly once.
+     */
+    void backfill() {
+        try {
+            long countedThrough = watermarkRepo.findById(ChatCounterWatermark.ID)
+                    .map(ChatCounterWatermark::getCountedThrough)
+                    .orElse(0L);
+            long through = conversationRepo.findMaxMessageId();
+            if (through > countedThrough) {
+                Map<String, Target> touched = new TreeMap<>();
+                for (Long groupId : conversationRepo.findGroupsWithMessagesBetween(countedThrough, through)) {
+                    touched.put(ChatConversation.groupKey(groupId), new Target(groupId, null));
+                }
+                for (Long studentId : conversationRepo.findOnboardingStudentsBetween(countedThrough, through)) {
+                    touched.put(ChatConversation.onboardingKey(studentId), new Target(null, studentId));
+                }
+                touched.forEach((key, target) -> transactionTemplate.executeWithoutResult(tx -> recount(key, target)));
+                watermarkRepo.advance(through);
+                if (!touched.isEmpty()) {
+                    log.info("Recounted message counters for {} conversations through message {}", touched.size(), through);
+                }
+            }
+            conversationRepo.fillMissingStudentIds();
+            conversationRepo.fillMissingLastMessages();
+        } catch (RuntimeException e) {
+            log.warn("Message counter backfill stopped: {}", e.getMessage());
+        }
+    }
+
+    private void recount(String key, Target target) {
+        conversationRepo.lockConversation(key);
+        ConversationTally tally = target.groupId() != null
+                ? conversationRepo.tallyGroup(target.groupId())
+                : conversationRepo.tallyOnboarding(target.studentId());
+        conversationRepo.replaceTally(key, target.studentId(), tally.getMessages(),
+                tally.getLastMessageId(), tally.getLastMessageAt());
+    }
+
+    /**
+     * Counts a new message. Runs inside the transaction that inserts the message
+     * (the write-behind batch when that is on); the counters are written just
+     * before it commits, so they commit or roll back with the message.
+     */
+    public void recordMessage(String conversationKey, Long studentId, MessageResponse message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Tally tally = new Tally(studentId);
+            tally.add(message);
+            apply(Map.of(conversationKey, tally));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Tally> pending = (Map<String, Tally>) TransactionSynchronizationManager.getResource(pendingTalliesKey);
+        if (pending == null) {
+            // Sorted, so concurrent batches lock conversation rows in the same order
+            Map<String, Tally> tallies = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(pendingTalliesKey, tallies);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(tallies);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingTalliesKey);
+                }
+            });
+            pending = tallies;
+        }
+        pending.computeIfAbsent(conversationKey, key -> new Tally(studentId)).add(message);
+    }
+
+    private void apply(Map<String, Tally> tallies) {
+        LocalDateTime now = LocalDateTime.now();
+        tallies.forEach((key, tally) -> {
+            MessageResponse last = tally.last;
+            String content = last.content();
+            String preview = content != null && content.length() > ChatConversation.PREVIEW_LENGTH
+                    ? content.substring(0, ChatConversation.PREVIEW_LENGTH)
+                    : content;
+            conversationRepo.recordMessages(key, tally.studentId, tally.count, last.id(), last.timestamp(),
+                    last.senderId(), preview);
+            // Whoever writes has read the conversation up to their own message
+            tally.senders.forEach(senderId -> readStateRepo.markRead(senderId, key, now));
+        });
+    }
+
+    /**
+     * Students get their group and onboarding thread; admins get every onboarding
+     * thread that has something they have not read, most recent first.
+     */
+    @Transactional(readOnly = true)
+    public List<UnreadCount> unread(JwtPrincipal principal) {
+        if ("ADMIN".equals(principal.role())) {
+            return readStateRepo.findUnreadOnboarding(principal.userId());
+        }
+        List<String> keys = new ArrayList<>(2);
+        Long groupId = membershipTracker.resolveGroupId(principal);
+        if (groupId != null) {
+            keys.add(ChatConversation.groupKey(groupId));
+        }
+        keys.add(ChatConversation.onboardingKey(principal.userId()));
+        return readStateRepo.findUnread(principal.userId(), keys);
+    }
+
+    @Transactional
+    public UnreadCount markRead(JwtPrincipal principal, Long groupId, Long userId) {
+        String key = conversationOf(principal, groupId, userId);
+        readStateRepo.markRead(principal.userId(), key, LocalDateTime.now());
+        List<UnreadCount> current = readStateRepo.findUnread(principal.userId(), List.of(key));
+        // No row yet means nobody has written in this conversation
+        return current.isEmpty() ? new UnreadCount(key, 0L, null, null) : current.get(0);
+    }
+
+    /**
+     * Every onboarding thread with its last message and the calling admin's
+     * unread count, most recent first. {@code page} is zero-based.
+     */
+    @Transactional(readOnly = true)
+    public OnboardingInbox onboardingInbox(Long adminId, Integer page, Integer size) {
+        int pageSize = size == null ? DEFAULT_INBOX_SIZE : Math.max(1, Math.min(size, MAX_INBOX_SIZE));
+        int pageIndex = page == null ? 0 : Math.max(0, page);
+        List<OnboardingInboxEntry> conversations =
+                conversationRepo.findOnboardingInbox(adminId, PageRequest.of(pageIndex, pageSize));
+        return new OnboardingInbox(conversations, pageIndex, pageSize, conversationRepo.countByStudentIdIsNotNull());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReadReceipt> receipts(JwtPrincipal principal, Long groupId, Long userId) {
+        String key = conversationOf(principal, groupId, userId);
+        return readStateRepo.findByConversationKeyOrderByLastReadMessageIdDesc(key).stream()
+                .map(state -> new ReadReceipt(state.getUserId(), state.getLastReadMessageId(), state.getReadAt()))
+                .toList();
+    }
+
+    private String conversationOf(JwtPrincipal principal, Long groupId, Long userId) {
+        boolean admin = "ADMIN".equals(principal.role());
+        if (groupId != null && userId != null) {
+            throw new IllegalArgumentException("Use either groupId or userId, not both");
+        }
+        if (groupId != null) {
+            if (!admin && !groupId.equals(membershipTracker.resolveGroupId(principal))) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a member of this group");
+            }
+            return ChatConversation.groupKey(groupId);
+        }
+        if (userId != null) {
+            if (!admin && !userId.equals(principal.userId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your onboarding chat");
+            }
+            return ChatConversation.onboardingKey(userId);
+        }
+        if (admin) {
+            throw new IllegalArgumentException("Admins must specify groupId or userId");
+        }
+        return ChatConversation.onboardingKey(principal.userId());
+    }
+
+    // A conversation to recount: a group, or a student's onboarding thread
+    private record Target(Long groupId, Long studentId) {
+    }
+
+    /**
+     * Messages one transaction adds to one conversation.
+     */
+    private static final class Tally {
+
+        private final Long studentId;
+        private final Set<Long> senders = new LinkedHashSet<>();
+        private long count;
+        private MessageResponse last;
+
+        Tally(Long studentId) {
+            this.studentId = studentId;
+        }
+
+        void add(MessageResponse message) {
+            count++;
+            senders.add(message.senderId());
+            if (last == null || message.id() > last.id()) {
+                last = message;
+            }
+        }
+    }
+}
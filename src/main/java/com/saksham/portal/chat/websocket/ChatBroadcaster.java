@@ -0,0 +1,28 @@
+package com.saksham.portal.chat.websocket;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.saksham.portal.chat.event.MessageSentEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pushes each committed message to the STOMP topic of its conversation.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        String destination = event.isGroupMessage()
+                ? ChatTopics.group(event.message().groupId())
+                : ChatTopics.onboarding(event.onboardingUserId());
+        messagingTemplate.convertAndSend(destination, event.message());
+    }
+}
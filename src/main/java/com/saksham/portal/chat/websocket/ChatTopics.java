@@ -0,0 +1,21 @@
+package com.saksham.portal.chat.websocket;
+
+/**
+ * STOMP destinations for pushed chat messages.
+ */
+public final class ChatTopics {
+
+    public static final String GROUP_PREFIX = "/topic/groups/";
+    public static final String ONBOARDING_PREFIX = "/topic/onboarding/";
+
+    private ChatTopics() {
+    }
+
+    public static String group(Long groupId) {
+        return GROUP_PREFIX + groupId;
+    }
+
+    public static String onboarding(Long userId) {
+        return ONBOARDING_PREFIX + userId;
+    }
+}
@@ -0,0 +1,116 @@
+package com.saksham.portal.chat.websocket;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.saksham.portal.auth.cache.VerifiedTokenCache;
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.auth.service.TokenRevocationService;
+import com.saksham.portal.groups.service.GroupMembershipTracker;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Authenticates STOMP sessions with the same bearer token as the REST API and
+ * authorises topic subscriptions.
+ *
+ * Browsers cannot set headers on the WebSocket handshake, so the token is sent
+ * in the STOMP CONNECT frame ({@code Authorization: Bearer ...}) and checked
+ * exactly like JwtAuthenticationFilter does. Students may only subscribe to
+ * their own group and onboarding topics; admins may subscribe to any.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
+    private final GroupMembershipTracker membershipTracker;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(principalOf(accessor), accessor.getDestination());
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            // Messages are sent through POST /api/chat/send so they are persisted first
+            throw new AccessDeniedException("Sending over the socket is not supported");
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Missing bearer token");
+        }
+        JwtPrincipal principal;
+        try {
+            principal = tokenCache.resolve(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (revocationService.isRevoked(principal)) {
+            throw new BadCredentialsException("Token revoked");
+        }
+        return new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+    }
+
+    private JwtPrincipal principalOf(StompHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof UsernamePasswordAuthenticationToken auth
+                && auth.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        throw new AccessDeniedException("Not authenticated");
+    }
+
+    private void authorizeSubscription(JwtPrincipal principal, String destination) {
+        if (destination == null) {
+            throw new AccessDeniedException("Missing destination");
+        }
+        if (principal.isExpired() || revocationService.isRevoked(principal)) {
+            throw new AccessDeniedException("Session token no longer valid");
+        }
+        boolean admin = "ADMIN".equals(principal.role());
+
+        if (destination.startsWith(ChatTopics.GROUP_PREFIX)) {
+            Long groupId = idAfter(destination, ChatTopics.GROUP_PREFIX);
+            if (admin || Objects.equals(groupId, membershipTracker.resolveGroupId(principal))) {
+                return;
+            }
+        } else if (destination.startsWith(ChatTopics.ONBOARDING_PREFIX)) {
+            Long userId = idAfter(destination, ChatTopics.ONBOARDING_PREFIX);
+            if (admin || Objects.equals(userId, principal.userId())) {
+                return;
+            }
+        }
+        throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+    }
+
+    private static Long idAfter(String destination, String prefix) {
+        try {
+            return Long.valueOf(destination.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new AccessDeniedException("Unknown destination " + destination);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.saksham.portal.common.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executors for work that must not run on request threads.
+ *
+ * The notification executor is bounded in both threads and queue. When SMTP is
+ * down long enough to fill the queue, further notifications are dropped and
+ * counted in {@code notifications.dropped}; they are never run on the caller,
+ * which would put SMTP back on the request path.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public Executor notificationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${notifications.executor.core-size:2}") int coreSize,
+            @Value("${notifications.executor.max-size:4}") int maxSize,
+            @Value("${notifications.executor.queue-capacity:1000}") int queueCapacity) {
+        Counter dropped = Counter.builder("notifications.dropped")
+                .description("Notification tasks rejected because the queue was full")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            dropped.increment();
+            log.warn("Notification queue full ({} pending); dropping notification", pool.getQueue().size());
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
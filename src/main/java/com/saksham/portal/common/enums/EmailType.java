@@ -10,4 +10,5 @@ public enum EmailType {
     GROUP_ASSIGNMENT,
     GROUP_CREATED,
     REMINDER,
+    MESSAGE_DIGEST,
 }
@@ -0,0 +1,70 @@
+package com.saksham.portal.common.model;
+
+import java.time.LocalDateTime;
+
+import com.saksham.portal.common.enums.EmailType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A chat notification waiting to be folded into the recipient's next digest.
+ * Rows exist only between the message and the digest flush, so the table stays
+ * small; it lets buffered notifications survive a restart. {@code owner} and
+ * {@code leaseUntil} name the node that has the row buffered, and rows given up
+ * on keep {@code failedAt} set.
+ */
+@Entity
+@Table(name = "pending_notifications")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PendingNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30, nullable = false)
+    private EmailType type;
+
+    @Column(name = "sender_name")
+    private String senderName;
+
+    @Column(name = "group_name")
+    private String groupName;
+
+    @Column(length = 1000)
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(length = 36)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
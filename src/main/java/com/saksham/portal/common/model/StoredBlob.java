@@ -0,0 +1,50 @@
+package com.saksham.portal.common.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One uploaded file content, stored once however many submissions and profile
+ * documents refer to it. The id is the hex SHA-256 of the content; rows whose
+ * {@code refCount} has dropped to zero are removed, with their file, by the
+ * {@link com.saksham.portal.common.service.BlobStore} sweeper.
+ */
+@Entity
+@Table(name = "blobs", indexes =
+    @Index(name = "idx_blobs_unreferenced", columnList = "ref_count, released_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // Extension of the first upload, used to name downloads
+    @Column(length = 20)
+    private String extension;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // When the last reference went away; null while referenced
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+}
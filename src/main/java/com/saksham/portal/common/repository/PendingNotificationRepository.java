@@ -0,0 +1,52 @@
+package com.saksham.portal.common.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.saksham.portal.common.model.PendingNotification;
+
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+
+    List<PendingNotification> findByOwnerAndFailedAtIsNullOrderByIdAsc(String owner);
+
+    // Takes over rows no live node holds: never leased, released, or left by a node that stopped renewing
+    @Transactional
+    @Modifying
+    @Query("UPDATE PendingNotification p SET p.owner = :owner, p.leaseUntil = :until " +
+        "WHERE p.failedAt IS NULL AND (p.leaseUntil IS NULL OR p.leaseUntil < :now)")
+    int claimUnowned(@Param("owner") String owner,
+                     @Param("until") LocalDateTime until,
+                     @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PendingNotification p SET p.leaseUntil = :until WHERE p.owner = :owner AND p.failedAt IS NULL")
+    int renewLeases(@Param("owner") String owner, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PendingNotification p SET p.owner = NULL, p.leaseUntil = NULL WHERE p.owner = :owner")
+    int releaseLeases(@Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PendingNotification p SET p.attempts = p.attempts + 1 WHERE p.id IN :ids")
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PendingNotification p SET p.failedAt = :now, p.owner = NULL, p.leaseUntil = NULL WHERE p.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PendingNotification p WHERE p.failedAt < :cutoff")
+    int deleteFailedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,59 @@
+package com.saksham.portal.common.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.saksham.portal.common.model.StoredBlob;
+
+import jakarta.persistence.LockModeType;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Adds a reference, creating the row for new content (MySQL). The row stays
+    // locked until the caller commits, which keeps the sweeper off it.
+    @Modifying
+    @Query(value = "INSERT INTO blobs (id, size, extension, ref_count, created_at) " +
+        "VALUES (:id, :size, :extension, 1, :now) " +
+        "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, released_at = NULL",
+        nativeQuery = true)
+    int acquire(@Param("id") String id,
+                @Param("size") long size,
+                @Param("extension") String extension,
+                @Param("now") LocalDateTime now);
+
+    // MySQL applies the assignments left to right, so released_at sees the decremented count
+    @Modifying
+    @Query(value = "UPDATE blobs SET ref_count = ref_count - 1, " +
+        "released_at = IF(ref_count = 0, :now, released_at) " +
+        "WHERE id = :id AND ref_count > 0", nativeQuery = true)
+    int release(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    // Records a file that is on disk without a committed reference, so the sweeper reclaims it
+    @Modifying
+    @Query(value = "INSERT INTO blobs (id, size, extension, ref_count, created_at, released_at) " +
+        "VALUES (:id, :size, :extension, 0, :now, :now) " +
+        "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int park(@Param("id") String id,
+             @Param("size") long size,
+             @Param("extension") String extension,
+             @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.id FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :cutoff ORDER BY b.releasedAt")
+    List<String> findUnreferencedIds(@Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    // Re-checks the count under a row lock, so a concurrent acquire either waits or is seen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.id = :id AND b.refCount = 0")
+    Optional<StoredBlob> lockUnreferenced(@Param("id") String id);
+
+    @Query("SELECT b.extension FROM StoredBlob b WHERE b.id = :id")
+    Optional<String> findExtensionById(@Param("id") String id);
+}
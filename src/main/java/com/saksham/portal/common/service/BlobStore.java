@@ -0,0 +1,274 @@
+package com.saksham.portal.common.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saksham.portal.common.repository.StoredBlobRepository;
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store for uploaded files.
+ *
+ * A file is identified by the hex SHA-256 of its content and kept once under
+ * {@code <upload-dir>/blobs/<first two hex chars>/<id>}, however many
+ * submissions and profile documents refer to it. Those rows store the blob id
+ * in their file path column; references written before the store existed are
+ * plain paths and are told apart with {@link #isBlobId(String)}.
+ *
+ * Uploads are streamed into {@code blobs/incoming} first ({@link #receive}) and
+ * then {@link #acquire acquired} inside the transaction that saves the
+ * referencing row, so the reference count and the row commit or roll back
+ * together. {@link #release} drops a reference the same way. Space is reclaimed
+ * by a background sweep: blobs that have had no references for
+ * {@code app.file.blobs.grace-period} are deleted under a row lock, which a
+ * concurrent acquire of the same content has to wait for.
+ *
+ * Meters: {@code blobs.deduplicated} and {@code blobs.reclaimed}.
+ */
+@Slf4j
+@Service
+public class BlobStore {
+
+    private static final Pattern BLOB_ID = Pattern.compile("[0-9a-f]{64}");
+    private static final int SWEEP_BATCH = 500;
+
+    private final StoredBlobRepository blobRepository;
+    private final StreamingUploadService streamingUploadService;
+    private final TransactionTemplate newTransaction;
+    private final Path root;
+    private final Path incoming;
+    private final Duration sweepInterval;
+    private final Duration gracePeriod;
+    private final Counter deduplicatedCounter;
+    private final Counter reclaimedCounter;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("blob-sweeper").daemon(true).factory());
+
+    public BlobStore(
+            StoredBlobRepository blobRepository,
+            StreamingUploadService streamingUploadService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.file.upload-dir}") String uploadDir,
+            @Value("${app.file.blobs.sweep-interval:PT10M}") Duration sweepInterval,
+            @Value("${app.file.blobs.grace-period:PT1H}") Duration gracePeriod) {
+        this.blobRepository = blobRepository;
+        this.streamingUploadService = streamingUploadService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Paths.get(uploadDir, "blobs");
+        this.incoming = root.resolve("incoming");
+        this.sweepInterval = sweepInterval;
+        this.gracePeriod = gracePeriod;
+        this.deduplicatedCounter = Counter.builder("blobs.deduplicated")
+                .description("Uploads whose content was already stored")
+                .register(meterRegistry);
+        this.reclaimedCounter = Counter.builder("blobs.reclaimed")
+                .description("Unreferenced blobs deleted by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create blob directory!", e);
+        }
+        sweeper.scheduleWithFixedDelay(this::sweep,
+                sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static boolean isBlobId(String reference) {
+        return reference != null && BLOB_ID.matcher(reference).matches();
+    }
+
+    public Path path(String blobId) {
+        return root.resolve(blobId.substring(0, 2)).resolve(blobId);
+    }
+
+    /**
+     * Extension of the first upload of this content, or an empty string.
+     */
+    public String extension(String blobId) {
+        return blobRepository.findExtensionById(blobId).orElse("");
+    }
+
+    /**
+     * Streams an upload into the staging area in a single pass; see
+     * {@link StreamingUploadService#store}. Call this outside any transaction,
+     * then {@link #acquire} the result inside the one that saves the reference.
+     */
+    public StoredFile receive(InputStream body, long contentLength, String originalFilename,
+                              Collection<String> allowedExtensions) throws IOException {
+        return streamingUploadService.store(body, contentLength, originalFilename, allowedExtensions, incoming);
+    }
+
+    /**
+     * Copies an existing file into the staging area, hashing it on the way.
+     */
+    public StoredFile stage(Path file) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path temp = incoming.resolve(UUID.randomUUID() + ".part");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), sha256)) {
+            long size = Files.copy(in, temp);
+            String name = file.getFileName().toString();
+            return new StoredFile(temp, name, StreamingUploadService.extensionOf(name), size,
+                    HexFormat.of().formatHex(sha256.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a reference to the staged file's content and returns its blob id. The
+     * staged file becomes the blob, or is dropped when the content is already
+     * stored. Must join the caller's transaction, which fails fast when there is
+     * none; if that rolls back, the reference is undone and a newly placed file
+     * is left for the sweeper.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String acquire(StoredFile staged) {
+        String id = staged.sha256();
+        blobRepository.acquire(id, staged.size(), staged.extension(), LocalDateTime.now());
+
+        // The row is locked until commit, so no sweep can delete the file under us
+        Path target = path(id);
+        try {
+            if (Files.exists(target)) {
+                Files.deleteIfExists(staged.path());
+                deduplicatedCounter.increment();
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(staged.path(), target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store blob " + id, e);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    newTransaction.executeWithoutResult(tx -> blobRepository.park(
+                            id, staged.size(), staged.extension(), LocalDateTime.now()));
+                }
+            }
+        });
+        return id;
+    }
+
+    /**
+     * Drops one reference. The file is deleted by the sweeper once nothing has
+     * referred to it for the grace period. Must join the transaction that drops
+     * the referencing row.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String blobId) {
+        blobRepository.release(blobId, LocalDateTime.now());
+    }
+
+    /**
+     * Deletes a staged file that was never acquired.
+     */
+    public void discard(StoredFile staged) {
+        try {
+            Files.deleteIfExists(staged.path());
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", staged.path(), e.getMessage());
+        }
+    }
+
+    private void sweep() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+            List<String> unreferenced = blobRepository.findUnreferencedIds(cutoff, PageRequest.of(0, SWEEP_BATCH));
+            for (String id : unreferenced) {
+                newTransaction.executeWithoutResult(tx -> blobRepository.lockUnreferenced(id).ifPresent(blob -> {
+                    try {
+                        Files.deleteIfExists(path(id));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    blobRepository.delete(blob);
+                    reclaimedCounter.increment();
+                }));
+            }
+            removeAbandonedUploads(cutoff);
+        } catch (Exception e) {
+            log.warn("Blob sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // Staged files left behind by a crash between receive and acquire
+    private void removeAbandonedUploads(LocalDateTime cutoff) throws IOException {
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try (Stream<Path> staged = Files.list(incoming)) {
+            for (Path file : staged.toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoffMillis) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
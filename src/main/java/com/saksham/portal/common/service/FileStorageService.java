@@ -1,66 +1,68 @@
 package com.saksham.portal.common.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.List;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
 
 @Service
 public class FileStorageService {
 
-    @Value("${app.file.upload-dir}")
-    private String uploadDir;
-
-    @Value("${app.file.max-size}")
-    private long maxFileSize;
+    private final BlobStore blobStore;
 
-    public String uploadFile(MultipartFile file, String fileType, Long userId) throws IOException {
-        if (file.isEmpty()) {
-            throw new IOException("Cannot upload empty file");
-        }
+    public FileStorageService(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
 
-        if (!validateFile(file, fileType)) {
-            throw new IOException("Invalid file type or size");
-        }
+    /**
+     * Streams a profile document into the {@link BlobStore} staging area, checking
+     * its type on the way. Call this outside any transaction, then {@link #store}
+     * the result inside the one that saves the reference or {@link #discard} it.
+     *
+     * @param contentLength declared length of the body, or -1 when unknown
+     */
+    public StoredFile receive(InputStream body, long contentLength, String originalFilename,
+                              String fileType) throws IOException {
+        return blobStore.receive(body, contentLength, originalFilename, allowedExtensions(fileType));
+    }
 
-        // Create directory structure: uploads/user-profiles/{userId}/{fileType}/
-        String directoryPath = uploadDir + "user-profiles/" + userId + "/" + fileType + "/";
-        Path directory = Paths.get(directoryPath);
-        
-        if (!Files.exists(directory)) {
-            Files.createDirectories(directory);
-        }
+    /**
+     * Adds a reference to a received document and returns its blob id for
+     * database storage. Joins the caller's transaction, so the reference count
+     * commits or rolls back with the row that holds it.
+     */
+    public String store(StoredFile staged) {
+        return blobStore.acquire(staged);
+    }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : "";
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        // Full file path
-        Path filePath = directory.resolve(uniqueFilename);
-        
-        // Copy file to destination
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Return relative path for database storage
-        return directoryPath + uniqueFilename;
+    /**
+     * Deletes a received document that was never stored.
+     */
+    public void discard(StoredFile staged) {
+        blobStore.discard(staged);
     }
 
+    /**
+     * Drops a stored reference. Blob content is reclaimed once nothing refers to
+     * it; files uploaded before the blob store are deleted directly.
+     */
     public void deleteFile(String filePath) throws IOException {
         if (filePath == null || filePath.isEmpty()) {
             return;
         }
-        
+        if (BlobStore.isBlobId(filePath)) {
+            blobStore.release(filePath);
+            return;
+        }
+
         Path path = Paths.get(filePath);
         if (Files.exists(path)) {
             Files.delete(path);
@@ -68,7 +70,7 @@ public class FileStorageService {
     }
 
     public Resource loadFileAsResource(String filePath) throws IOException {
-        Path path = Paths.get(filePath);
+        Path path = resolve(filePath);
         
         if (!Files.exists(path)) {
             throw new IOException("File not found: " + filePath);
@@ -83,29 +85,27 @@ public class FileStorageService {
         }
     }
 
-    public boolean validateFile(MultipartFile file, String fileType) {
-        if (file.isEmpty()) {
-            return false;
-        }
-
-        // Check file size
-        if (file.getSize() > maxFileSize) {
-            return false;
+    /**
+     * File name to offer on download: {@code baseName} plus the stored extension
+     * for blobs, the file's own name otherwise.
+     */
+    public String downloadName(String filePath, String baseName) {
+        if (BlobStore.isBlobId(filePath)) {
+            String extension = blobStore.extension(filePath);
+            return extension.isEmpty() ? baseName : baseName + "." + extension;
         }
+        return Paths.get(filePath).getFileName().toString();
+    }
 
-        // Get file extension
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null) {
-            return false;
-        }
-        
-        String extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase();
+    private Path resolve(String filePath) {
+        return BlobStore.isBlobId(filePath) ? blobStore.path(filePath) : Paths.get(filePath);
+    }
 
-        // Validate based on file type
+    public List<String> allowedExtensions(String fileType) {
         return switch (fileType) {
-            case "resume" -> extension.matches("pdf|doc|docx");
-            case "ead", "id" -> extension.matches("pdf|jpg|jpeg|png");
-            default -> false;
+            case "resume" -> List.of("pdf", "doc", "docx");
+            case "ead", "id" -> List.of("pdf", "jpg", "jpeg", "png");
+            default -> List.of();
         };
     }
 }
@@ -0,0 +1,135 @@
+package com.saksham.portal.common.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
+import com.saksham.portal.submissions.repository.SubmissionRepository;
+import com.saksham.portal.users.repository.UserDetailsRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves files uploaded before the {@link BlobStore} existed into it.
+ *
+ * Runs once in the background at startup. Each legacy file is hashed into the
+ * store and its row is switched to the blob id in one transaction, but only if
+ * the row still holds the path that was read; the old file is deleted after
+ * commit. Until a row is migrated its plain path keeps working.
+ */
+@Slf4j
+@Component
+public class LegacyFileMigration {
+
+    private final BlobStore blobStore;
+    private final SubmissionRepository submissionRepository;
+    private final UserDetailsRepository userDetailsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String uploadDir;
+    private final boolean enabled;
+
+    public LegacyFileMigration(
+            BlobStore blobStore,
+            SubmissionRepository submissionRepository,
+            UserDetailsRepository userDetailsRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.file.upload-dir}") String uploadDir,
+            @Value("${app.file.blobs.migrate-legacy:true}") boolean enabled) {
+        this.blobStore = blobStore;
+        this.submissionRepository = submissionRepository;
+        this.userDetailsRepository = userDetailsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadDir = uploadDir;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            Thread.ofVirtual().name("legacy-file-migration").start(this::migrate);
+        }
+    }
+
+    private void migrate() {
+        try {
+            int migrated = 0;
+            // Submission paths are relative to the upload directory
+            for (SubmissionRepository.FileReference reference : submissionRepository.findFileReferences()) {
+                migrated += adopt(reference.getId(), reference.getFilePath(),
+                        Paths.get(uploadDir, reference.getFilePath()), submissionRepository::replaceFilePath);
+            }
+            // Profile document paths already include it
+            for (UserDetailsRepository.DocumentPaths paths : userDetailsRepository.findDocumentPaths()) {
+                migrated += adopt(paths.getId(), paths.getResumeFilePath(), userDetailsRepository::replaceResumeFilePath);
+                migrated += adopt(paths.getId(), paths.getEadFilePath(), userDetailsRepository::replaceEadFilePath);
+                migrated += adopt(paths.getId(), paths.getIdFilePath(), userDetailsRepository::replaceIdFilePath);
+            }
+            if (migrated > 0) {
+                log.info("Moved {} legacy upload(s) into the blob store", migrated);
+            }
+        } catch (Exception e) {
+            log.warn("Legacy upload migration stopped: {}", e.getMessage());
+        }
+    }
+
+    private int adopt(Long id, String legacyPath, PathReplacer replacer) {
+        return legacyPath == null ? 0 : adopt(id, legacyPath, Paths.get(legacyPath), replacer);
+    }
+
+    private int adopt(Long id, String legacyPath, Path file, PathReplacer replacer) {
+        if (legacyPath.isBlank() || BlobStore.isBlobId(legacyPath)) {
+            return 0;
+        }
+        if (!Files.isRegularFile(file)) {
+            log.warn("Legacy upload {} is missing; leaving its reference as is", file);
+            return 0;
+        }
+
+        StoredFile staged;
+        try {
+            staged = blobStore.stage(file);
+        } catch (IOException e) {
+            log.warn("Could not read legacy upload {}: {}", file, e.getMessage());
+            return 0;
+        }
+
+        Boolean replaced;
+        try {
+            replaced = transactionTemplate.execute(tx -> {
+                String blobId = blobStore.acquire(staged);
+                if (replacer.replace(id, legacyPath, blobId) == 0) {
+                    // Changed since it was read; the rollback undoes the reference
+                    tx.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            blobStore.discard(staged);
+            throw e;
+        }
+
+        if (!Boolean.TRUE.equals(replaced)) {
+            return 0;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete migrated upload {}: {}", file, e.getMessage());
+        }
+        return 1;
+    }
+
+    @FunctionalInterface
+    private interface PathReplacer {
+        int replace(Long id, String legacyPath, String blobId);
+    }
+}
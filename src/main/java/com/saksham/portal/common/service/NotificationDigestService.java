@@ -0,0 +1,305 @@
+package com.saksham.portal.common.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.stereotype.Service;
+
+import com.saksham.portal.common.enums.EmailType;
+import com.saksham.portal.common.model.PendingNotification;
+import com.saksham.portal.common.repository.PendingNotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces chat notifications into one email per recipient per window.
+ *
+ * The first notification for a recipient opens a buffer and schedules it on a
+ * time wheel {@code notifications.digest.window} ahead. Everything that arrives
+ * for that recipient before the slot comes round joins the same buffer, and the
+ * flush sends a single email: the original template for one message, a
+ * MESSAGE_DIGEST summary for several. A busy group therefore costs at most one
+ * email per member per window instead of one per message.
+ *
+ * Each buffered notification is also written to {@code pending_notifications}
+ * and deleted after its digest is sent. The node that buffers a row holds a
+ * lease on it ({@code notifications.digest.lease}), renewed on its own thread
+ * while it runs, however long a send takes, and released on shutdown; rows whose lease ran out, e.g. after a crash, are
+ * claimed and re-buffered by any node. Delivery is at-least-once.
+ *
+ * A failed send is retried in the next window, at most
+ * {@code notifications.digest.max-attempts} times. Rows that run out of attempts,
+ * or whose email cannot be built at all, are kept with {@code failed_at} set for
+ * {@code notifications.digest.dead-letter-retention} and counted in
+ * {@code notifications.dead_lettered}.
+ */
+@Slf4j
+@Service
+public class NotificationDigestService {
+
+    private static final int WHEEL_SLOTS = 60;
+    private static final int MAX_SUMMARY_LINES = 20;
+    private static final int MAX_EXCERPT = 120;
+
+    private final PendingNotificationRepository pendingRepository;
+    private final NotificationEmailService notificationEmailService;
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration deadLetterRetention;
+    private final Counter deadLetteredCounter;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, List<PendingNotification>> buffers = new ConcurrentHashMap<>();
+    private final Set<Long> bufferedIds = ConcurrentHashMap.newKeySet();
+    private final Queue<String>[] wheel;
+    private final AtomicLong tick = new AtomicLong();
+    private final ScheduledExecutorService ticker;
+    // Separate from the ticker so a slow mail server cannot hold up renewal past the lease
+    private final ScheduledExecutorService leaseKeeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notification-lease").daemon(true).factory());
+
+    @SuppressWarnings("unchecked")
+    public NotificationDigestService(
+            PendingNotificationRepository pendingRepository,
+            NotificationEmailService notificationEmailService,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.digest.enabled:true}") boolean enabled,
+            @Value("${notifications.digest.window:PT5M}") Duration window,
+            @Value("${notifications.digest.lease:PT15M}") Duration lease,
+            @Value("${notifications.digest.max-attempts:5}") int maxAttempts,
+            @Value("${notifications.digest.dead-letter-retention:P7D}") Duration deadLetterRetention) {
+        this.pendingRepository = pendingRepository;
+        this.notificationEmailService = notificationEmailService;
+        this.enabled = enabled;
+        this.window = window;
+        // A lease shorter than the window would run out while its rows wait for their slot
+        this.lease = lease.compareTo(window.multipliedBy(2)) < 0 ? window.multipliedBy(2) : lease;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.deadLetterRetention = deadLetterRetention;
+        this.deadLetteredCounter = Counter.builder("notifications.dead_lettered")
+                .description("Chat notifications given up on after failed sends")
+                .register(meterRegistry);
+
+        this.wheel = new Queue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("notification-digest").daemon(true).factory());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        // Re-buffer whatever was waiting when the previous holder stopped
+        claim();
+
+        long tickMillis = Math.max(1, window.toMillis() / WHEEL_SLOTS);
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        long leaseMillis = lease.toMillis() / 3;
+        leaseKeeper.scheduleWithFixedDelay(this::maintainLeases, leaseMillis, leaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a GROUP_MESSAGE or DIRECT_MESSAGE notification for the next digest.
+     */
+    public void enqueue(EmailType type, String recipientEmail, String senderName, String groupName, String content) {
+        PendingNotification pending = pendingRepository.save(PendingNotification.builder()
+                .recipientEmail(recipientEmail)
+                .type(type)
+                .senderName(senderName)
+                .groupName(groupName)
+                .content(content != null && content.length() > 1000 ? content.substring(0, 1000) : content)
+                .createdAt(LocalDateTime.now())
+                .owner(nodeId)
+                .leaseUntil(LocalDateTime.now().plus(lease))
+                .build());
+        track(pending);
+    }
+
+    private void claim() {
+        LocalDateTime now = LocalDateTime.now();
+        if (pendingRepository.claimUnowned(nodeId, now.plus(lease), now) > 0) {
+            pendingRepository.findByOwnerAndFailedAtIsNullOrderByIdAsc(nodeId).forEach(this::track);
+        }
+    }
+
+    private void maintainLeases() {
+        try {
+            pendingRepository.renewLeases(nodeId, LocalDateTime.now().plus(lease));
+            claim();
+            pendingRepository.deleteFailedBefore(LocalDateTime.now().minus(deadLetterRetention));
+        } catch (Exception e) {
+            log.warn("Failed to renew notification leases: {}", e.getMessage());
+        }
+    }
+
+    // A row can be both saved here and claimed from the table; buffer it once
+    private void track(PendingNotification pending) {
+        if (bufferedIds.add(pending.getId())) {
+            buffer(pending);
+        }
+    }
+
+    private void buffer(PendingNotification pending) {
+        boolean[] opened = {false};
+        buffers.compute(pending.getRecipientEmail(), (recipient, list) -> {
+            if (list == null) {
+                list = new ArrayList<>();
+                opened[0] = true;
+            }
+            list.add(pending);
+            return list;
+        });
+        if (opened[0]) {
+            // The slot that was just drained comes round again one full window from now
+            wheel[(int) (tick.get() % WHEEL_SLOTS)].add(pending.getRecipientEmail());
+        }
+    }
+
+    private void advance() {
+        Queue<String> due = wheel[(int) (tick.incrementAndGet() % WHEEL_SLOTS)];
+        String recipient;
+        while ((recipient = due.poll()) != null) {
+            List<PendingNotification> batch = buffers.remove(recipient);
+            if (batch != null && !batch.isEmpty()) {
+                flush(recipient, batch);
+            }
+        }
+    }
+
+    private void flush(String recipient, List<PendingNotification> batch) {
+        List<Long> ids = batch.stream().map(PendingNotification::getId).toList();
+        try {
+            if (batch.size() == 1) {
+                sendSingle(recipient, batch.get(0));
+            } else {
+                notificationEmailService.sendMessageDigestNotification(recipient, batch.size(), summarize(batch));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to send notification digest to {}: {}", recipient, e.getMessage());
+            retryOrGiveUp(batch, ids, isPermanent(e));
+            return;
+        }
+        bufferedIds.removeAll(ids);
+        try {
+            pendingRepository.deleteAllByIdInBatch(ids);
+        } catch (Exception e) {
+            // Sent already; the rows are sent again only once this node's lease has run out
+            log.warn("Failed to delete sent notifications for {}: {}", recipient, e.getMessage());
+        }
+    }
+
+    private void retryOrGiveUp(List<PendingNotification> batch, List<Long> ids, boolean permanent) {
+        List<PendingNotification> retry = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (PendingNotification pending : batch) {
+            pending.setAttempts(pending.getAttempts() + 1);
+            if (permanent || pending.getAttempts() >= maxAttempts) {
+                failed.add(pending.getId());
+            } else {
+                retry.add(pending);
+            }
+        }
+        try {
+            pendingRepository.recordFailedAttempt(ids);
+            if (!failed.isEmpty()) {
+                pendingRepository.markFailed(failed, LocalDateTime.now());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record notification attempts: {}", e.getMessage());
+        }
+        if (!failed.isEmpty()) {
+            log.warn("Giving up on {} notification(s) to {}", failed.size(), batch.get(0).getRecipientEmail());
+            bufferedIds.removeAll(failed);
+            deadLetteredCounter.increment(failed.size());
+        }
+        // The rows stay persisted; the next window retries the rest
+        retry.forEach(this::buffer);
+    }
+
+    // The message itself cannot be built, so sending it again cannot succeed
+    private static boolean isPermanent(Exception e) {
+        return e instanceof MailParseException || e instanceof MailPreparationException;
+    }
+
+    private void sendSingle(String recipient, PendingNotification pending) {
+        if (pending.getType() == EmailType.GROUP_MESSAGE) {
+            notificationEmailService.sendGroupMessageNotification(
+                    recipient, pending.getGroupName(), pending.getSenderName(), pending.getContent());
+        } else {
+            notificationEmailService.sendDirectMessageNotification(
+                    recipient, pending.getSenderName(), pending.getContent());
+        }
+    }
+
+    private String summarize(List<PendingNotification> batch) {
+        StringBuilder summary = new StringBuilder();
+        int shown = Math.min(batch.size(), MAX_SUMMARY_LINES);
+        for (int i = 0; i < shown; i++) {
+            PendingNotification pending = batch.get(i);
+            String where = pending.getType() == EmailType.GROUP_MESSAGE
+                    ? "in " + pending.getGroupName()
+                    : "direct message";
+            summary.append("- ").append(pending.getSenderName()).append(" (").append(where).append("): \"")
+                    .append(excerpt(pending.getContent())).append("\"\n");
+        }
+        if (batch.size() > shown) {
+            summary.append("...and ").append(batch.size() - shown).append(" more\n");
+        }
+        return summary.toString();
+    }
+
+    private static String excerpt(String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.length() <= MAX_EXCERPT ? content : content.substring(0, MAX_EXCERPT) + "...";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        leaseKeeper.shutdownNow();
+        ticker.shutdownNow();
+        if (!enabled) {
+            return;
+        }
+        // Buffered rows are persisted; hand them to whichever node claims next,
+        // once a renewal still in flight can no longer take them back
+        try {
+            leaseKeeper.awaitTermination(5, TimeUnit.SECONDS);
+            pendingRepository.releaseLeases(nodeId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Failed to release notification leases: {}", e.getMessage());
+        }
+    }
+}
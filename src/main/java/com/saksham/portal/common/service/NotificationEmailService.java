@@ -54,6 +54,10 @@ public class NotificationEmailService {
     public void sendReminderNotification(String toEmail, String reminderText) {
         sendNotification(EmailType.REMINDER, toEmail, reminderText);
     }
+
+    public void sendMessageDigestNotification(String toEmail, int messageCount, String summary) {
+        sendNotification(EmailType.MESSAGE_DIGEST, toEmail, String.valueOf(messageCount), summary);
+    }
     // Legacy method for backward compatibility
     public void sendNotification(EmailType type, String toEmail, Object... params) {
         String[] stringParams = new String[params.length];
@@ -0,0 +1,233 @@
+package com.saksham.portal.common.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.submissions.config.FileUploadProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stores an upload by reading its body exactly once.
+ *
+ * Each chunk is written to a temporary file inside the destination directory,
+ * fed to a SHA-256 digest and counted against {@code app.file.max-size} in the
+ * same loop. The first bytes are checked against the magic number of the
+ * claimed extension as soon as they arrive, so a renamed executable or an
+ * oversized body is refused without reading the rest of it. On success the
+ * temporary file is renamed into place, which is atomic on the same file
+ * system; on failure it is deleted.
+ *
+ * Meters: {@code uploads.stored}, {@code uploads.bytes} and
+ * {@code uploads.rejected{reason=size|type|empty}}.
+ */
+@Service
+public class StreamingUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEAD_SIZE = 16;
+
+    private static final byte[] PDF = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] ZIP = {'P', 'K', 0x03, 0x04};
+    private static final byte[] OLE = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+    // Extensions whose content must start with one of these signatures
+    private static final Map<String, List<byte[]>> SIGNATURES = Map.of(
+            "pdf", List.of(PDF),
+            "png", List.of(PNG),
+            "jpg", List.of(JPEG),
+            "jpeg", List.of(JPEG),
+            "zip", List.of(ZIP),
+            "docx", List.of(ZIP),
+            "pptx", List.of(ZIP),
+            "xlsx", List.of(ZIP),
+            "doc", List.of(OLE),
+            "ppt", List.of(OLE));
+
+    // Refused whatever the extension claims
+    private static final List<byte[]> EXECUTABLES = List.of(
+            new byte[] {'M', 'Z'},
+            new byte[] {0x7F, 'E', 'L', 'F'},
+            new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+
+    private final FileUploadProperties fileUploadProperties;
+    private final Counter storedCounter;
+    private final Counter bytesCounter;
+    private final Counter tooLargeCounter;
+    private final Counter wrongTypeCounter;
+    private final Counter emptyCounter;
+
+    public StreamingUploadService(FileUploadProperties fileUploadProperties, MeterRegistry meterRegistry) {
+        this.fileUploadProperties = fileUploadProperties;
+        this.storedCounter = Counter.builder("uploads.stored")
+                .description("Uploads written to storage")
+                .register(meterRegistry);
+        this.bytesCounter = Counter.builder("uploads.bytes")
+                .description("Bytes written by accepted uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.tooLargeCounter = rejected(meterRegistry, "size");
+        this.wrongTypeCounter = rejected(meterRegistry, "type");
+        this.emptyCounter = rejected(meterRegistry, "empty");
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("uploads.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A file that has been stored under {@code path}.
+     */
+    public record StoredFile(Path path, String originalFilename, String extension, long size, String sha256) {}
+
+    /**
+     * Streams {@code body} into {@code directory} under a random name that keeps
+     * the original extension.
+     *
+     * @param declaredLength Content-Length of the body, or -1 when unknown; a
+     *                       declared length above the limit is refused before
+     *                       anything is read
+     * @throws ResponseStatusException 413 when the body exceeds the limit, 415 when
+     *                                 the extension is not allowed or the content
+     *                                 does not match it, 400 when the body is empty
+     */
+    public StoredFile store(InputStream body, long declaredLength, String originalFilename,
+                            Collection<String> allowedExtensions, Path directory) throws IOException {
+        if (originalFilename == null || originalFilename.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File name is invalid");
+        }
+        String extension = extensionOf(originalFilename);
+        if (!allowedExtensions.contains(extension)) {
+            wrongTypeCounter.increment();
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "File type not allowed. Allowed types: " + String.join(",", allowedExtensions));
+        }
+        long maxSize = fileUploadProperties.getMaxSize();
+        if (declaredLength > maxSize) {
+            throw tooLarge(maxSize);
+        }
+
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, ".upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            byte[] head = new byte[HEAD_SIZE];
+            int headLength = 0;
+            long size = 0;
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw tooLarge(maxSize);
+                    }
+                    if (headLength < HEAD_SIZE) {
+                        int take = Math.min(read, HEAD_SIZE - headLength);
+                        System.arraycopy(buffer, 0, head, headLength, take);
+                        headLength += take;
+                        if (headLength == HEAD_SIZE) {
+                            verifyContent(extension, head, headLength);
+                        }
+                    }
+                    sha256.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            if (size == 0) {
+                emptyCounter.increment();
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty");
+            }
+            if (headLength < HEAD_SIZE) {
+                verifyContent(extension, head, headLength);
+            }
+
+            Path target = directory.resolve(UUID.randomUUID() + (extension.isEmpty() ? "" : "." + extension));
+            moveIntoPlace(temp, target);
+            storedCounter.increment();
+            bytesCounter.increment(size);
+            return new StoredFile(target, originalFilename, extension, size, HexFormat.of().formatHex(sha256.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    public static String extensionOf(String filename) {
+        int lastDotIndex = filename.lastIndexOf('.');
+        return lastDotIndex > 0 ? filename.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private void verifyContent(String extension, byte[] head, int length) {
+        for (byte[] executable : EXECUTABLES) {
+            if (startsWith(head, length, executable)) {
+                wrongTypeCounter.increment();
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Executable files are not allowed");
+            }
+        }
+        List<byte[]> expected = SIGNATURES.get(extension);
+        if (expected == null) {
+            // Text formats have no signature to check
+            return;
+        }
+        for (byte[] signature : expected) {
+            if (startsWith(head, length, signature)) {
+                return;
+            }
+        }
+        wrongTypeCounter.increment();
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "File content does not match its ." + extension + " extension");
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] prefix) {
+        return length >= prefix.length && Arrays.equals(head, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private ResponseStatusException tooLarge(long maxSize) {
+        tooLargeCounter.increment();
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "File size exceeds maximum allowed size of " + (maxSize / 1024 / 1024) + " MB");
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
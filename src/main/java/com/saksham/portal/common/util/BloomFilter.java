@@ -0,0 +1,98 @@
+package com.saksham.portal.common.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over {@code long} or string keys.
+ *
+ * "No" answers are exact, "maybe" answers are false positives with roughly the
+ * configured probability while the filter holds at most the expected number of
+ * keys. Bits are set with CAS on an {@link AtomicLongArray}, so both
+ * {@link #put(long)} and {@link #mightContain(long)} are lock-free and
+ * allocation-free. Keys cannot be removed.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        // Indexes are derived from int hashes, so cap the filter at 2^31 bits
+        int wordCount = (int) Math.min(Integer.MAX_VALUE / 64, Math.max(1, (bits + 63) / 64));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * ln2));
+    }
+
+    public void put(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(CharSequence key) {
+        put(hash(key));
+    }
+
+    public boolean mightContain(CharSequence key) {
+        return mightContain(hash(key));
+    }
+
+    private long index(int combinedHash) {
+        // Flip negatives instead of Math.abs so Integer.MIN_VALUE is handled too
+        int positive = combinedHash < 0 ? ~combinedHash : combinedHash;
+        return positive % bitCount;
+    }
+
+    private void setBit(long bit) {
+        int wordIndex = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(wordIndex);
+            if ((word & mask) != 0 || words.compareAndSet(wordIndex, word, word | mask)) {
+                return;
+            }
+        }
+    }
+
+    // FNV-1a over the UTF-16 chars; mix() then spreads the result
+    private static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // MurmurHash3 64-bit finaliser: spreads sequential ids across the whole word
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
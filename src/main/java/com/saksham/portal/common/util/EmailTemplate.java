@@ -16,6 +16,7 @@ public class EmailTemplate {
             case GROUP_ASSIGNMENT -> "Assigned to New Group: " + (params.length > 0 ? params[0] : "Group");
             case GROUP_CREATED -> "New Group Created: " + (params.length > 0 ? params[0] : "Group");
             case REMINDER -> "Reminder: " + (params.length > 0 ? params[0] : "Important Notice");
+            case MESSAGE_DIGEST -> "You have " + (params.length > 0 ? params[0] : "new") + " new messages";
         };
     }
 
@@ -30,6 +31,7 @@ public class EmailTemplate {
             case GROUP_ASSIGNMENT -> buildGroupAssignmentMessage(params);
             case GROUP_CREATED -> buildGroupCreatedMessage(params);
             case REMINDER -> buildReminderMessage(params);
+            case MESSAGE_DIGEST -> buildMessageDigest(params);
         };
     }
 
@@ -175,4 +177,19 @@ public class EmailTemplate {
             Student Portal Team
             """, reminderText);
     }
+
+    private static String buildMessageDigest(String... params) {
+        String count = params.length > 0 ? params[0] : "Several";
+        String summary = params.length > 1 ? params[1] : "";
+        return String.format("""
+            You have %s new messages in the Student Portal:
+            
+            %s
+            
+            Please log in to the portal to read and reply.
+            
+            Best regards,
+            Student Portal Team
+            """, count, summary);
+    }
 }
\ No newline at end of file
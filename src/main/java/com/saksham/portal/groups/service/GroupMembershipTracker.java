@@ -0,0 +1,136 @@
+package com.saksham.portal.groups.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.users.model.User;
+import com.saksham.portal.users.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides whether the groupId claim inside a token can still be trusted.
+ *
+ * Every membership change is stamped on the user row ({@code group_changed_at})
+ * and recorded in memory. A token's claim is current only if it was issued
+ * after the user's last change (and after this node started). Changes made on
+ * other nodes are picked up by polling the column every
+ * {@code groups.membership.sync-interval}, so a node trusts a stale claim for at
+ * most that long. Stale or pre-startup tokens fall back to a single user
+ * lookup, so a membership change is honoured without forcing a re-login.
+ */
+@Slf4j
+@Component
+public class GroupMembershipTracker {
+
+    // Changes read from the database are treated as this much later, to cover
+    // commit delay and clock skew between nodes; the poll window overlaps by as much
+    private static final Duration COMMIT_MARGIN = Duration.ofSeconds(10);
+
+    private final UserRepository userRepository;
+    private final long tokenLifetimeMillis;
+    private final Duration syncInterval;
+    private final Instant startedAt = Instant.now();
+    private final ConcurrentHashMap<Long, Instant> lastChange = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("group-membership-sync").daemon(true).factory());
+    private volatile LocalDateTime syncedUpTo;
+
+    public GroupMembershipTracker(
+            UserRepository userRepository,
+            @Value("${jwt.expiration}") long tokenLifetimeMillis,
+            @Value("${groups.membership.sync-interval:PT5S}") Duration syncInterval) {
+        this.userRepository = userRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.syncInterval = syncInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        syncedUpTo = LocalDateTime.now().minus(Duration.ofMillis(tokenLifetimeMillis));
+        sync();
+        poller.scheduleWithFixedDelay(this::sync,
+                syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records that the user's group has changed. The stamp is written with the
+     * user row by the caller's save; the local mark is repeated after commit so a
+     * token issued while the transaction was still open is also treated as stale.
+     */
+    public void markChanged(User user) {
+        Long userId = user.getId();
+        user.setGroupChangedAt(LocalDateTime.now());
+        lastChange.put(userId, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastChange.put(userId, Instant.now());
+                }
+            });
+        }
+        prune();
+    }
+
+    public boolean isCurrent(JwtPrincipal principal) {
+        Instant issuedAt = principal.issuedAt();
+        if (issuedAt == null || !issuedAt.isAfter(startedAt)) {
+            return false;
+        }
+        Instant changedAt = lastChange.get(principal.userId());
+        return changedAt == null || issuedAt.isAfter(changedAt);
+    }
+
+    /**
+     * Group of the caller, read from the token when current and from the database otherwise.
+     * Returns null when the user has no group.
+     */
+    public Long resolveGroupId(JwtPrincipal principal) {
+        if (isCurrent(principal)) {
+            return principal.groupId();
+        }
+        User user = userRepository.findById(principal.userId())
+                .orElseThrow(() -> new RuntimeException("User Not Found"));
+        return user.getGroup() != null ? user.getGroup().getId() : null;
+    }
+
+    private void sync() {
+        try {
+            LocalDateTime pollStartedAt = LocalDateTime.now();
+            for (UserRepository.GroupChange change : userRepository.findGroupChangesSince(syncedUpTo.minus(COMMIT_MARGIN))) {
+                Instant changedAt = change.getChangedAt().plus(COMMIT_MARGIN).atZone(ZoneId.systemDefault()).toInstant();
+                lastChange.merge(change.getUserId(), changedAt, (existing, incoming) -> incoming.isAfter(existing) ? incoming : existing);
+            }
+            syncedUpTo = pollStartedAt;
+            prune();
+        } catch (Exception e) {
+            log.warn("Group membership sync failed: {}", e.getMessage());
+        }
+    }
+
+    // Changes older than the token lifetime can no longer affect any live token
+    private void prune() {
+        Instant cutoff = Instant.now().minusMillis(tokenLifetimeMillis);
+        lastChange.values().removeIf(changedAt -> changedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+}
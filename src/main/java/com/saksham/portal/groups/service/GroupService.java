@@ -5,26 +5,31 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.saksham.portal.common.enums.Role;
 import com.saksham.portal.common.service.NotificationEmailService;
 import com.saksham.portal.groups.dto.CreateGroupRequest;
 import com.saksham.portal.groups.dto.GroupResponse;
 import com.saksham.portal.groups.model.Group;
 import com.saksham.portal.groups.repository.GroupRepository;
+import com.saksham.portal.users.dto.AdminContact;
 import com.saksham.portal.users.dto.UserResponse;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.users.repository.UserRepository;
+import com.saksham.portal.users.service.AdminDirectory;
 
 @Service
 public class GroupService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final NotificationEmailService notificationEmailService;
+    private final GroupMembershipTracker membershipTracker;
+    private final AdminDirectory adminDirectory;
 
-    public GroupService(GroupRepository groupRepository, UserRepository userRepository, NotificationEmailService notificationEmailService) {
+    public GroupService(GroupRepository groupRepository, UserRepository userRepository, NotificationEmailService notificationEmailService, GroupMembershipTracker membershipTracker, AdminDirectory adminDirectory) {
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.notificationEmailService = notificationEmailService;
+        this.membershipTracker = membershipTracker;
+        this.adminDirectory = adminDirectory;
     }
 
     @Transactional
@@ -40,16 +45,15 @@ public class GroupService {
         Group savedGroup = groupRepository.save(group);
 
         // Get admin who created the group
-        User admin = userRepository.findByRole(Role.ADMIN)
-                .stream()
-                .findFirst()
-                .orElse(null);
-        String createdBy = admin != null ? admin.getUsername() : "System Administrator";
+        String createdBy = adminDirectory.primary()
+                .map(AdminContact::username)
+                .orElse("System Administrator");
 
         if (request.userIds() != null && !request.userIds().isEmpty()) {
             List<User> users = userRepository.findAllById(request.userIds());
             for (User user : users) {
                 savedGroup.addUser(user);
+                membershipTracker.markChanged(user);
                 
                 // Send group assignment notification to each user
                 notificationEmailService.sendGroupAssignmentNotification(
@@ -63,10 +67,9 @@ public class GroupService {
         }
 
         // Send group creation notification to all admins
-        List<User> admins = userRepository.findByRole(Role.ADMIN);
-        for (User adminUser : admins) {
+        for (AdminContact adminUser : adminDirectory.all()) {
             notificationEmailService.sendGroupCreatedNotification(
-                adminUser.getEmail(),
+                adminUser.email(),
                 group.getName(),
                 createdBy
             );
@@ -94,16 +97,15 @@ public class GroupService {
 
         // Add user to new group
         group.addUser(user);
+        membershipTracker.markChanged(user);
         
         userRepository.save(user);
         Group savedGroup = groupRepository.save(group);
 
         // Get admin who assigned the user
-        User admin = userRepository.findByRole(Role.ADMIN)
-                .stream()
-                .findFirst()
-                .orElse(null);
-        String assignedBy = admin != null ? admin.getUsername() : "System Administrator";
+        String assignedBy = adminDirectory.primary()
+                .map(AdminContact::username)
+                .orElse("System Administrator");
 
         // Send group assignment notification to the user
         notificationEmailService.sendGroupAssignmentNotification(
@@ -128,6 +130,7 @@ public class GroupService {
         }
 
         group.removeUser(user);
+        membershipTracker.markChanged(user);
         
         userRepository.save(user);
         Group savedGroup = groupRepository.save(group);
@@ -167,6 +170,7 @@ public class GroupService {
             List<User> users = List.copyOf(group.getUsers());
             for (User user : users) {
                 group.removeUser(user);
+                membershipTracker.markChanged(user);
             }
             userRepository.saveAll(users);
         }
@@ -189,11 +193,9 @@ public class GroupService {
         group.setDescription(request.description());
         
         // Get admin who updated the group (assume current admin user for notification purposes)
-        User admin = userRepository.findByRole(Role.ADMIN)
-                .stream()
-                .findFirst()
-                .orElse(null);
-        String updatedBy = admin != null ? admin.getUsername() : "System Administrator";
+        String updatedBy = adminDirectory.primary()
+                .map(AdminContact::username)
+                .orElse("System Administrator");
         
         // Handle user assignments if provided
         if (request.userIds() != null) {
@@ -202,6 +204,7 @@ public class GroupService {
                 List<User> currentUsers = List.copyOf(group.getUsers());
                 for (User user : currentUsers) {
                     group.removeUser(user);
+                    membershipTracker.markChanged(user);
                 }
                 userRepository.saveAll(currentUsers);
             }
@@ -211,6 +214,7 @@ public class GroupService {
                 List<User> newUsers = userRepository.findAllById(request.userIds());
                 for (User user : newUsers) {
                     group.addUser(user);
+                    membershipTracker.markChanged(user);
                     
                     // Send group assignment notification to each newly assigned user
                     notificationEmailService.sendGroupAssignmentNotification(
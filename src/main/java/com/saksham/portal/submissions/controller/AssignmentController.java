@@ -11,11 +11,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.annotation.CurrentUser;
+import com.saksham.portal.auth.dto.JwtPrincipal;
 import com.saksham.portal.submissions.dto.AssignmentRequest;
 import com.saksham.portal.submissions.dto.AssignmentResponse;
 import com.saksham.portal.submissions.dto.SubmissionResponse;
@@ -32,17 +32,15 @@ public class AssignmentController {
 
     private final AssignmentService assignmentService;
     private final SubmissionService submissionService;
-    private final JwtUtil jwtUtil;
 
     // Admin Endpoints
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> createAssignment(
             @Valid @RequestBody AssignmentRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long createdById = jwtUtil.extractUserId(token);
+            Long createdById = principal.userId();
             AssignmentResponse response = assignmentService.createAssignment(createdById, request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
@@ -99,12 +97,9 @@ public class AssignmentController {
     // Student Endpoints
     @GetMapping
     public ResponseEntity<?> getAssignmentsForUser(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
-            
-            List<AssignmentResponse> assignments = assignmentService.getAssignmentsByUserGroup(userId);
+            List<AssignmentResponse> assignments = assignmentService.getAssignmentsByUserGroup(principal);
             return ResponseEntity.ok(assignments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to get assignments: " + e.getMessage());
@@ -1,5 +1,6 @@
 package com.saksham.portal.submissions.controller;
 
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -9,25 +10,28 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.annotation.CurrentUser;
+import com.saksham.portal.auth.dto.JwtPrincipal;
 import com.saksham.portal.common.service.FileStorageService;
 import com.saksham.portal.submissions.dto.SubmissionResponse;
 import com.saksham.portal.submissions.service.SubmissionService;
 import com.saksham.portal.users.dto.FileUploadResponse;
 import com.saksham.portal.users.service.UserDetailsService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -38,19 +42,17 @@ public class FileController {
     private final SubmissionService submissionService;
     private final UserDetailsService userDetailsService;
     private final FileStorageService fileStorageService;
-    private final JwtUtil jwtUtil;
 
     @GetMapping("/submissions/{submissionId}/download")
     public ResponseEntity<?> downloadSubmissionFile(
             @PathVariable Long submissionId,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
             
             SubmissionResponse submission = submissionService.getSubmissionById(submissionId);
             
-            String userRole = jwtUtil.extractRole(token);
+            String userRole = principal.role();
             if (!submission.userId().equals(userId) && !"ADMIN".equals(userRole)) {
                 return ResponseEntity.status(403).body("Access denied");
             }
@@ -65,13 +67,12 @@ public class FileController {
             Resource resource = new UrlResource(path.toUri());
             
             if (resource.exists() && resource.isReadable()) {
-                String contentType = Files.probeContentType(path);
-                if (contentType == null) {
-                    contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-                }
+                // Stored blobs have no extension; the type comes from the uploaded name
+                MediaType contentType = MediaTypeFactory.getMediaType(submission.fileName())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM);
                 
                 return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
+                        .contentType(contentType)
                         .header(HttpHeaders.CONTENT_DISPOSITION, 
                                 "attachment; filename=\"" + submission.fileName() + "\"")
                         .body(resource);
@@ -90,10 +91,9 @@ public class FileController {
     public ResponseEntity<?> uploadProfileDocument(
             @PathVariable String documentType,
             @RequestParam("file") MultipartFile file,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             if (!documentType.matches("resume|ead|id")) {
                 return ResponseEntity.badRequest().body("Invalid document type. Must be: resume, ead, or id");
@@ -109,6 +109,39 @@ public class FileController {
                 LocalDateTime.now()
             ));
 
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    // Same endpoint with the document as the raw request body, streamed to storage without multipart spooling
+    @PostMapping(value = "/profile/upload/{documentType}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> uploadProfileDocumentStream(
+            @PathVariable String documentType,
+            @RequestParam("fileName") String fileName,
+            HttpServletRequest request,
+            @CurrentUser JwtPrincipal principal) {
+        if (!documentType.matches("resume|ead|id")) {
+            return ResponseEntity.badRequest().body("Invalid document type. Must be: resume, ead, or id");
+        }
+
+        try (InputStream body = request.getInputStream()) {
+            long contentLength = request.getContentLengthLong();
+            userDetailsService.uploadProfileDocument(principal.userId(), fileName, body, contentLength, documentType);
+
+            return ResponseEntity.ok(new FileUploadResponse(
+                fileName,
+                "/api/files/profile/download/" + documentType,
+                contentLength >= 0 ? contentLength : null,
+                documentType,
+                LocalDateTime.now()
+            ));
+
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to upload file: " + e.getMessage());
         }
@@ -118,10 +151,9 @@ public class FileController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> downloadProfileDocument(
             @PathVariable String documentType,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             // Get user details to find file path
             var userDetails = userDetailsService.getUserDetailsByUserId(userId);
@@ -139,15 +171,14 @@ public class FileController {
 
             Resource resource = fileStorageService.loadFileAsResource(filePath);
             
-            String contentType = Files.probeContentType(Paths.get(filePath));
-            if (contentType == null) {
-                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-            }
+            String fileName = fileStorageService.downloadName(filePath, documentType);
+            MediaType contentType = MediaTypeFactory.getMediaType(fileName)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
 
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
+                    .contentType(contentType)
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + Paths.get(filePath).getFileName() + "\"")
+                            "attachment; filename=\"" + fileName + "\"")
                     .body(resource);
 
         } catch (Exception e) {
@@ -176,15 +207,14 @@ public class FileController {
 
             Resource resource = fileStorageService.loadFileAsResource(filePath);
             
-            String contentType = Files.probeContentType(Paths.get(filePath));
-            if (contentType == null) {
-                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-            }
+            String fileName = fileStorageService.downloadName(filePath, documentType);
+            MediaType contentType = MediaTypeFactory.getMediaType(fileName)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
 
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
+                    .contentType(contentType)
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename=\"" + Paths.get(filePath).getFileName() + "\"")
+                            "attachment; filename=\"" + fileName + "\"")
                     .body(resource);
 
         } catch (Exception e) {
@@ -196,10 +226,9 @@ public class FileController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> deleteProfileDocument(
             @PathVariable String documentType,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             if (!documentType.matches("resume|ead|id")) {
                 return ResponseEntity.badRequest().body("Invalid document type. Must be: resume, ead, or id");
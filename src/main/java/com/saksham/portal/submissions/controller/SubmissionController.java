@@ -1,8 +1,10 @@
 package com.saksham.portal.submissions.controller;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,17 +12,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.annotation.CurrentUser;
+import com.saksham.portal.auth.dto.JwtPrincipal;
 import com.saksham.portal.submissions.dto.SubmissionEvaluationRequest;
 import com.saksham.portal.submissions.dto.SubmissionResponse;
 import com.saksham.portal.submissions.service.SubmissionService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -30,20 +34,38 @@ import lombok.RequiredArgsConstructor;
 public class SubmissionController {
 
     private final SubmissionService submissionService;
-    private final JwtUtil jwtUtil;
 
     // Student Endpoints
     @PostMapping
     public ResponseEntity<?> submitAssignment(
             @RequestParam("assignmentId") Long assignmentId,
             @RequestParam("file") MultipartFile file,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
             
             SubmissionResponse response = submissionService.submitAssignment(userId, assignmentId, file);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to submit assignment: " + e.getMessage());
+        }
+    }
+
+    // Same endpoint with the file as the raw request body, streamed to storage without multipart spooling
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> submitAssignmentStream(
+            @RequestParam("assignmentId") Long assignmentId,
+            @RequestParam("fileName") String fileName,
+            HttpServletRequest request,
+            @CurrentUser JwtPrincipal principal) {
+        try (InputStream body = request.getInputStream()) {
+            SubmissionResponse response = submissionService.submitAssignment(
+                    principal.userId(), assignmentId, fileName, body, request.getContentLengthLong());
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to submit assignment: " + e.getMessage());
         }
@@ -51,10 +73,9 @@ public class SubmissionController {
 
     @GetMapping("/my")
     public ResponseEntity<?> getMySubmissions(
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
             
             List<SubmissionResponse> submissions = submissionService.getSubmissionsByUser(userId);
             return ResponseEntity.ok(submissions);
@@ -58,6 +58,10 @@ public class Submission {
     @Column(name = "file_size")
     private Long fileSize;
 
+    // Hex SHA-256 of the stored file, computed while it was uploaded
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -3,6 +3,9 @@ package com.saksham.portal.submissions.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.saksham.portal.submissions.model.Submission;
@@ -15,4 +18,19 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     List<Submission> findByUserIdOrderBySubmittedAtDesc(Long userId);
 
     boolean existsByAssignmentIdAndUserId(Long assignmentId, Long userId);
+
+    // Used to move files uploaded before the blob store into it
+
+    @Query("SELECT s.id AS id, s.filePath AS filePath FROM Submission s WHERE s.filePath IS NOT NULL")
+    List<FileReference> findFileReferences();
+
+    // Only replaces the path it read, so a concurrent change is never overwritten
+    @Modifying
+    @Query("UPDATE Submission s SET s.filePath = :blobId WHERE s.id = :id AND s.filePath = :legacyPath")
+    int replaceFilePath(@Param("id") Long id, @Param("legacyPath") String legacyPath, @Param("blobId") String blobId);
+
+    interface FileReference {
+        Long getId();
+        String getFilePath();
+    }
 }
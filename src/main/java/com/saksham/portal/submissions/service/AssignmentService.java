@@ -5,11 +5,15 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.saksham.portal.auth.dto.JwtPrincipal;
+import com.saksham.portal.common.service.BlobStore;
 import com.saksham.portal.groups.model.Group;
 import com.saksham.portal.groups.repository.GroupRepository;
+import com.saksham.portal.groups.service.GroupMembershipTracker;
 import com.saksham.portal.submissions.dto.AssignmentRequest;
 import com.saksham.portal.submissions.dto.AssignmentResponse;
 import com.saksham.portal.submissions.model.Assignment;
+import com.saksham.portal.submissions.model.Submission;
 import com.saksham.portal.submissions.repository.AssignmentRepository;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.users.repository.UserRepository;
@@ -23,6 +27,8 @@ public class AssignmentService {
     private final AssignmentRepository assignmentRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final GroupMembershipTracker membershipTracker;
+    private final BlobStore blobStore;
 
     @Transactional
     public AssignmentResponse createAssignment(Long createdById, AssignmentRequest request) {
@@ -95,21 +101,26 @@ public class AssignmentService {
     }
 
     @Transactional(readOnly = true)
-    public List<AssignmentResponse> getAssignmentsByUserGroup(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public List<AssignmentResponse> getAssignmentsByUserGroup(JwtPrincipal principal) {
+        Long groupId = membershipTracker.resolveGroupId(principal);
         
-        if (user.getGroup() == null) {
+        if (groupId == null) {
             return List.of();
         }
         
-        return getAssignmentsByGroup(user.getGroup().getId());
+        return getAssignmentsByGroup(groupId);
     }
 
     @Transactional
     public void deleteAssignment(Long assignmentId) {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new RuntimeException("Assignment not found"));
+        // Submissions are removed by cascade; drop their references to stored files
+        for (Submission submission : assignment.getSubmissions()) {
+            if (BlobStore.isBlobId(submission.getFilePath())) {
+                blobStore.release(submission.getFilePath());
+            }
+        }
         assignmentRepository.delete(assignment);
     }
 
@@ -1,21 +1,23 @@
 package com.saksham.portal.submissions.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.saksham.portal.common.enums.Role;
 import com.saksham.portal.common.enums.SubmissionStatus;
+import com.saksham.portal.common.service.BlobStore;
 import com.saksham.portal.common.service.NotificationEmailService;
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
 import com.saksham.portal.submissions.config.FileUploadProperties;
 import com.saksham.portal.submissions.dto.SubmissionEvaluationRequest;
 import com.saksham.portal.submissions.dto.SubmissionResponse;
@@ -23,8 +25,10 @@ import com.saksham.portal.submissions.model.Assignment;
 import com.saksham.portal.submissions.model.Submission;
 import com.saksham.portal.submissions.repository.AssignmentRepository;
 import com.saksham.portal.submissions.repository.SubmissionRepository;
+import com.saksham.portal.users.dto.AdminContact;
 import com.saksham.portal.users.model.User;
 import com.saksham.portal.users.repository.UserRepository;
+import com.saksham.portal.users.service.AdminDirectory;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +42,9 @@ public class SubmissionService {
     private final UserRepository userRepository;
     private final FileUploadProperties fileUploadProperties;
     private final NotificationEmailService notificationEmailService;
+    private final AdminDirectory adminDirectory;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
 
     @PostConstruct
     public void init() {
@@ -48,8 +55,22 @@ public class SubmissionService {
         }
     }
 
-    @Transactional
     public SubmissionResponse submitAssignment(Long userId, Long assignmentId, MultipartFile file) {
+        try (InputStream body = file.getInputStream()) {
+            return submitAssignment(userId, assignmentId, file.getOriginalFilename(), body, file.getSize());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save file", e);
+        }
+    }
+
+    /**
+     * Stores a submission read straight from the request body. The body is
+     * streamed outside any transaction so a slow upload never holds a database
+     * connection; the checks run before the first byte is read and the row is
+     * written once the file is in place.
+     */
+    public SubmissionResponse submitAssignment(Long userId, Long assignmentId, String originalFilename,
+                                               InputStream body, long contentLength) {
         // Validate user exists
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -61,38 +82,45 @@ public class SubmissionService {
             throw new RuntimeException("You have already submitted for this assignment");
         }
 
-        validateFile(file);
-
         SubmissionStatus status = SubmissionStatus.PENDING;
         if (assignment.getDueDate() != null && LocalDateTime.now().isAfter(assignment.getDueDate())) {
             // Note: add LATE status
             status = SubmissionStatus.PENDING; 
         }
 
-        String fileName = saveFile(file, assignmentId, userId);
+        StoredFile stored = receiveFile(body, contentLength, originalFilename);
 
         Submission submission = Submission.builder()
                 .assignment(assignment)
                 .user(user)
-                .fileName(file.getOriginalFilename())
-                .filePath(fileName)
-                .fileSize(file.getSize())
+                .fileName(originalFilename)
+                .fileSize(stored.size())
+                .contentSha256(stored.sha256())
                 .status(status)
                 .build();
 
-        Submission saved = submissionRepository.save(submission);
-        
-        // Send email notification to all admins about new submission
-        List<User> admins = userRepository.findByRole(Role.ADMIN);
-        for (User admin : admins) {
-            notificationEmailService.sendSubmissionNotification(
-                admin.getEmail(),
-                assignment.getTitle(),
-                user.getUsername()
-            );
+        try {
+            return transactionTemplate.execute(tx -> {
+                // Counted in the same transaction as the row that refers to it
+                submission.setFilePath(blobStore.acquire(stored));
+                Submission saved = submissionRepository.save(submission);
+
+                // Send email notification to all admins about new submission
+                for (AdminContact admin : adminDirectory.all()) {
+                    notificationEmailService.sendSubmissionNotification(
+                        admin.email(),
+                        assignment.getTitle(),
+                        user.getUsername()
+                    );
+                }
+
+                return toResponse(saved);
+            });
+        } catch (RuntimeException e) {
+            // Still staged if the transaction failed before acquiring it
+            blobStore.discard(stored);
+            throw e;
         }
-        
-        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -134,63 +162,27 @@ public class SubmissionService {
     public String getFilePath(Long submissionId) {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
-        
-        return Paths.get(fileUploadProperties.getUploadDir(), submission.getFilePath()).toString();
-    }
 
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new RuntimeException("File is empty");
-        }
-
-        if (file.getSize() > fileUploadProperties.getMaxSize()) {
-            throw new RuntimeException("File size exceeds maximum allowed size of " + (fileUploadProperties.getMaxSize() / 1024 / 1024) + " MB");
-        }
-
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null) {
-            throw new RuntimeException("File name is invalid");
-        }
-
-        String fileExtension = getFileExtension(originalFilename);
-        if (!isAllowedFileType(fileExtension)) {
-            throw new RuntimeException("File type not allowed. Allowed types: " + fileUploadProperties.getAllowedTypes());
+        if (BlobStore.isBlobId(submission.getFilePath())) {
+            return blobStore.path(submission.getFilePath()).toString();
         }
+        // Uploaded before the blob store; path relative to the upload directory
+        return Paths.get(fileUploadProperties.getUploadDir(), submission.getFilePath()).toString();
     }
 
-    private String saveFile(MultipartFile file, Long assignmentId, Long userId) {
+    private StoredFile receiveFile(InputStream body, long contentLength, String originalFilename) {
         try {
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String uniqueFileName = UUID.randomUUID().toString() + "." + fileExtension;
-            
-            // Create directory: uploads/assignments/{assignmentId}/{userId}/
-            Path assignmentDir = Paths.get(fileUploadProperties.getUploadDir(), "assignments", assignmentId.toString(), userId.toString());
-            Files.createDirectories(assignmentDir);
-            
-            Path filePath = assignmentDir.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            return Paths.get("assignments", assignmentId.toString(), userId.toString(), uniqueFileName).toString();
-            
+            return blobStore.receive(body, contentLength, originalFilename, allowedExtensions());
         } catch (IOException e) {
             throw new RuntimeException("Failed to save file", e);
         }
     }
 
-    private String getFileExtension(String filename) {
-        int lastDotIndex = filename.lastIndexOf('.');
-        return lastDotIndex > 0 ? filename.substring(lastDotIndex + 1).toLowerCase() : "";
-    }
-
-    private boolean isAllowedFileType(String extension) {
-        String[] allowedExtensions = fileUploadProperties.getAllowedTypes().split(",");
-        for (String allowed : allowedExtensions) {
-            if (allowed.trim().equalsIgnoreCase(extension)) {
-                return true;
-            }
-        }
-        return false;
+    private List<String> allowedExtensions() {
+        return Arrays.stream(fileUploadProperties.getAllowedTypes().split(","))
+                .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                .filter(type -> !type.isEmpty())
+                .toList();
     }
 
     private SubmissionResponse toResponse(Submission submission) {
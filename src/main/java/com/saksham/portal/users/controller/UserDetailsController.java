@@ -11,11 +11,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.saksham.portal.auth.util.JwtUtil;
+import com.saksham.portal.auth.annotation.CurrentUser;
+import com.saksham.portal.auth.dto.JwtPrincipal;
 import com.saksham.portal.users.dto.UserDetailsRequest;
 import com.saksham.portal.users.dto.UserDetailsResponse;
 import com.saksham.portal.users.service.UserDetailsService;
@@ -29,16 +29,14 @@ import lombok.RequiredArgsConstructor;
 public class UserDetailsController {
 
     private final UserDetailsService userDetailsService;
-    private final JwtUtil jwtUtil;
 
     @PostMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> createMyProfile(
             @Valid @RequestBody UserDetailsRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             UserDetailsResponse response = userDetailsService.createUserDetails(userId, request);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -50,10 +48,9 @@ public class UserDetailsController {
 
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getMyProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getMyProfile(@CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             UserDetailsResponse response = userDetailsService.getUserDetailsByUserId(userId);
             return ResponseEntity.ok(response);
@@ -67,10 +64,9 @@ public class UserDetailsController {
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> updateMyProfile(
             @Valid @RequestBody UserDetailsRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             UserDetailsResponse response = userDetailsService.updateUserDetails(userId, request);
             return ResponseEntity.ok(response);
@@ -82,10 +78,9 @@ public class UserDetailsController {
 
     @GetMapping("/me/completion")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> getProfileCompletion(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getProfileCompletion(@CurrentUser JwtPrincipal principal) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtUtil.extractUserId(token);
+            Long userId = principal.userId();
 
             int percentage = userDetailsService.calculateProfileCompletionPercentage(userId);
             
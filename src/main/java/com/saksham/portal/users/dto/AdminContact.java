@@ -0,0 +1,8 @@
+package com.saksham.portal.users.dto;
+
+public record AdminContact(
+    Long id,
+    String username,
+    String email
+) {
+}
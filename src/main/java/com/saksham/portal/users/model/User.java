@@ -10,9 +10,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -25,7 +27,7 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_group_changed_at", columnList = "group_changed_at"))
 //lombok annotations to reduce boilerplate code
 @Data
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
@@ -55,13 +57,17 @@ public class User {
     @Column(name = "status", length = 20)
     private UserStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id")
     private Group group;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Set by GroupMembershipTracker; nodes poll it to distrust older groupId claims
+    @Column(name = "group_changed_at")
+    private LocalDateTime groupChangedAt;
+
     @PrePersist
     void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,9 +1,12 @@
 package com.saksham.portal.users.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.saksham.portal.users.model.UserDetails;
@@ -21,4 +24,31 @@ public interface UserDetailsRepository extends JpaRepository<UserDetails, Long>
 
     @Query("SELECT COUNT(ud) FROM UserDetails ud WHERE ud.profileCompleted = true")
     long countCompletedProfiles();
+
+    // Used to move documents uploaded before the blob store into it. Each update
+    // only replaces the path it read, so a concurrent change is never overwritten.
+
+    @Query("SELECT ud.id AS id, ud.resumeFilePath AS resumeFilePath, ud.eadFilePath AS eadFilePath, " +
+        "ud.idFilePath AS idFilePath FROM UserDetails ud " +
+        "WHERE ud.resumeFilePath IS NOT NULL OR ud.eadFilePath IS NOT NULL OR ud.idFilePath IS NOT NULL")
+    List<DocumentPaths> findDocumentPaths();
+
+    @Modifying
+    @Query("UPDATE UserDetails ud SET ud.resumeFilePath = :blobId WHERE ud.id = :id AND ud.resumeFilePath = :legacyPath")
+    int replaceResumeFilePath(@Param("id") Long id, @Param("legacyPath") String legacyPath, @Param("blobId") String blobId);
+
+    @Modifying
+    @Query("UPDATE UserDetails ud SET ud.eadFilePath = :blobId WHERE ud.id = :id AND ud.eadFilePath = :legacyPath")
+    int replaceEadFilePath(@Param("id") Long id, @Param("legacyPath") String legacyPath, @Param("blobId") String blobId);
+
+    @Modifying
+    @Query("UPDATE UserDetails ud SET ud.idFilePath = :blobId WHERE ud.id = :id AND ud.idFilePath = :legacyPath")
+    int replaceIdFilePath(@Param("id") Long id, @Param("legacyPath") String legacyPath, @Param("blobId") String blobId);
+
+    interface DocumentPaths {
+        Long getId();
+        String getResumeFilePath();
+        String getEadFilePath();
+        String getIdFilePath();
+    }
 }
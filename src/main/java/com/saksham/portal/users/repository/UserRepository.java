@@ -1,11 +1,15 @@
 package com.saksham.portal.users.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.saksham.portal.common.enums.Role;
+import com.saksham.portal.users.dto.AdminContact;
 import com.saksham.portal.users.model.User;
 
 
@@ -21,4 +25,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRole(Role role);
 
+    @Query("SELECT new com.saksham.portal.users.dto.AdminContact(u.id, u.username, u.email) " +
+           "FROM User u WHERE u.role = :role ORDER BY u.id")
+    List<AdminContact> findContactsByRole(@Param("role") Role role);
+
+    // Registration uniqueness: one probe on the two unique indexes, loading only the two columns
+    List<IdentityView> findByUsernameOrEmail(String username, String email);
+
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    List<IdentityView> findAllIdentities();
+
+    // Membership changes for GroupMembershipTracker's cross-node sync
+    @Query("SELECT u.id AS userId, u.groupChangedAt AS changedAt FROM User u WHERE u.groupChangedAt > :since")
+    List<GroupChange> findGroupChangesSince(@Param("since") LocalDateTime since);
+
+    interface GroupChange {
+        Long getUserId();
+        LocalDateTime getChangedAt();
+    }
+
+    interface IdentityView {
+        String getUsername();
+        String getEmail();
+    }
+
 }
@@ -0,0 +1,111 @@
+package com.saksham.portal.users.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.saksham.portal.common.enums.Role;
+import com.saksham.portal.users.dto.AdminContact;
+import com.saksham.portal.users.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory list of admins (id, username, email).
+ *
+ * Admins change rarely but are looked up on every onboarding message, submission
+ * and group change. Reads return an immutable snapshot from an
+ * {@link AtomicReference}: no lock, no query. The snapshot is loaded at startup
+ * and swapped wholesale by {@link #reload()}, which UserService triggers after
+ * committing a change to an admin (role, username or email).
+ *
+ * That reload only happens on the node that made the change. With
+ * {@code app.cluster.multi-node} every node also reloads every
+ * {@code users.admins.reload-interval}, so another node's change is seen within
+ * that interval.
+ */
+@Slf4j
+@Component
+public class AdminDirectory {
+
+    private final UserRepository userRepository;
+    private final boolean multiNode;
+    private final Duration reloadInterval;
+    private final AtomicReference<List<AdminContact>> admins = new AtomicReference<>(List.of());
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("admin-directory-reload").daemon(true).factory());
+
+    public AdminDirectory(
+            UserRepository userRepository,
+            @Value("${app.cluster.multi-node:false}") boolean multiNode,
+            @Value("${users.admins.reload-interval:PT10S}") Duration reloadInterval) {
+        this.userRepository = userRepository;
+        this.multiNode = multiNode;
+        this.reloadInterval = reloadInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        reload();
+        if (multiNode) {
+            reloader.scheduleWithFixedDelay(this::reloadQuietly,
+                    reloadInterval.toMillis(), reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    public void reload() {
+        admins.set(List.copyOf(userRepository.findContactsByRole(Role.ADMIN)));
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Admin directory reload failed: {}", e.getMessage());
+        }
+    }
+
+    /** Reloads once the current transaction commits, or right away outside one. */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    public List<AdminContact> all() {
+        return admins.get();
+    }
+
+    /** The admin with the lowest id, named as the actor in group notifications. */
+    public Optional<AdminContact> primary() {
+        List<AdminContact> snapshot = admins.get();
+        return snapshot.isEmpty() ? Optional.empty() : Optional.of(snapshot.get(0));
+    }
+
+    public boolean isAdmin(Long userId) {
+        return admins.get().stream().anyMatch(admin -> admin.id().equals(userId));
+    }
+}
@@ -1,12 +1,15 @@
 package com.saksham.portal.users.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.saksham.portal.common.service.FileStorageService;
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
 import com.saksham.portal.users.dto.UserDetailsRequest;
 import com.saksham.portal.users.dto.UserDetailsResponse;
 import com.saksham.portal.users.model.User;
@@ -23,6 +26,7 @@ public class UserDetailsService {
     private final UserDetailsRepository userDetailsRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public UserDetailsResponse createUserDetails(Long userId, UserDetailsRequest request) {
@@ -109,32 +113,49 @@ public class UserDetailsService {
         return mapToResponse(userDetails);
     }
 
-    @Transactional
     public void uploadProfileDocument(Long userId, MultipartFile file, String documentType) {
-        UserDetails userDetails = userDetailsRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User profile not found"));
-
-        try {
-            // Delete old file if exists
-            String oldFilePath = getOldFilePath(userDetails, documentType);
-            if (oldFilePath != null) {
-                fileStorageService.deleteFile(oldFilePath);
-            }
-
-            // Upload new file
-            String newFilePath = fileStorageService.uploadFile(file, documentType, userId);
+        try (InputStream body = file.getInputStream()) {
+            uploadProfileDocument(userId, file.getOriginalFilename(), body, file.getSize(), documentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+        }
+    }
 
-            // Update file path in database
-            updateFilePath(userDetails, documentType, newFilePath);
+    /**
+     * Replaces a profile document with one read straight from the request body.
+     * The body is streamed outside any transaction so a slow upload never holds
+     * a database connection; the profile row is updated once the file is in place.
+     */
+    public void uploadProfileDocument(Long userId, String originalFilename, InputStream body,
+                                      long contentLength, String documentType) {
+        if (!userDetailsRepository.existsByUserId(userId)) {
+            throw new RuntimeException("User profile not found");
+        }
 
-            // Check profile completion
-            int completionPercentage = calculateProfileCompletionPercentage(userId);
-            userDetails.setProfileCompleted(completionPercentage == 100);
+        StoredFile staged = receiveFile(body, contentLength, originalFilename, documentType);
 
-            userDetailsRepository.save(userDetails);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                UserDetails userDetails = userDetailsRepository.findByUserId(userId)
+                        .orElseThrow(() -> new RuntimeException("User profile not found"));
+
+                // Both reference counts change in the transaction that saves the row
+                String oldFilePath = getOldFilePath(userDetails, documentType);
+                updateFilePath(userDetails, documentType, fileStorageService.store(staged));
+                if (oldFilePath != null) {
+                    deleteFile(oldFilePath);
+                }
+
+                // Check profile completion
+                int completionPercentage = calculateProfileCompletionPercentage(userId);
+                userDetails.setProfileCompleted(completionPercentage == 100);
 
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+                userDetailsRepository.save(userDetails);
+            });
+        } catch (RuntimeException e) {
+            // Still staged if the transaction failed before storing it
+            fileStorageService.discard(staged);
+            throw e;
         }
     }
 
@@ -207,6 +228,22 @@ public class UserDetailsService {
         );
     }
 
+    private StoredFile receiveFile(InputStream body, long contentLength, String originalFilename, String documentType) {
+        try {
+            return fileStorageService.receive(body, contentLength, originalFilename, documentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+        }
+    }
+
+    private void deleteFile(String filePath) {
+        try {
+            fileStorageService.deleteFile(filePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+        }
+    }
+
     private String buildFileUrl(String filePath) {
         return filePath;
     }
@@ -5,6 +5,8 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.saksham.portal.auth.service.RegisteredIdentityFilter;
+import com.saksham.portal.auth.service.TokenRevocationService;
 import com.saksham.portal.common.enums.Role;
 import com.saksham.portal.common.enums.UserStatus;
 import com.saksham.portal.common.service.NotificationEmailService;
@@ -19,10 +21,18 @@ public class UserService {
 
     private final UserRepository userRepo;
     private final NotificationEmailService notificationEmailService;
+    private final TokenRevocationService revocationService;
+    private final RegisteredIdentityFilter identityFilter;
+    private final AdminDirectory adminDirectory;
 
-    public UserService(UserRepository userRepo, NotificationEmailService notificationEmailService) {
+    public UserService(UserRepository userRepo, NotificationEmailService notificationEmailService,
+                       TokenRevocationService revocationService, RegisteredIdentityFilter identityFilter,
+                       AdminDirectory adminDirectory) {
         this.userRepo = userRepo;
         this.notificationEmailService = notificationEmailService;
+        this.revocationService = revocationService;
+        this.identityFilter = identityFilter;
+        this.adminDirectory = adminDirectory;
     }
 
     public List<UserResponse> getAllUsers() {
@@ -52,6 +62,7 @@ public class UserService {
         boolean statusChanged = false;
         UserStatus oldStatus = user.getStatus();
         UserStatus newStatus = request.status();
+        boolean roleChanged = request.role() != null && request.role() != user.getRole();
 
         if (request.username() != null) user.setUsername(request.username());
         if (request.email() != null) user.setEmail(request.email());
@@ -62,6 +73,17 @@ public class UserService {
         }
 
         UserResponse result = toDto(userRepo.save(user));
+        identityFilter.add(user.getUsername(), user.getEmail());
+
+        // Admin list is cached; refresh it once this change is committed
+        if (roleChanged || (user.getRole() == Role.ADMIN && (request.username() != null || request.email() != null))) {
+            adminDirectory.reloadAfterCommit();
+        }
+
+        // Outstanding tokens carry the old role/status; force a fresh login
+        if (roleChanged || (statusChanged && newStatus == UserStatus.SUSPENDED)) {
+            revocationService.revokeAllTokens(id, roleChanged ? "ROLE_CHANGED" : "SUSPENDED");
+        }
 
         // Send email notification if status changed
         if (statusChanged) {
@@ -85,6 +107,10 @@ public class UserService {
         if (!oldStatus.equals(newStatus)) {
             user.setStatus(newStatus);
             userRepo.save(user);
+
+            if (newStatus == UserStatus.SUSPENDED) {
+                revocationService.revokeAllTokens(userId, "SUSPENDED");
+            }
             
             // Send status change notification
             notificationEmailService.sendStatusChangeNotification(
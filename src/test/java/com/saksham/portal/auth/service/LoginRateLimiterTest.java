@@ -0,0 +1,113 @@
+package com.saksham.portal.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.auth.config.LoginThrottleProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketAllowsBurstThenReportsWaitUntilNextAttempt() {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket("test", 3, Duration.ofSeconds(10), 100, meterRegistry);
+        long now = 1_000 * SECOND;
+
+        assertThat(bucket.tryAcquire("alice", now)).isZero();
+        assertThat(bucket.tryAcquire("alice", now)).isZero();
+        assertThat(bucket.tryAcquire("alice", now)).isZero();
+
+        long wait = bucket.tryAcquire("alice", now);
+        assertThat(wait).isEqualTo(10 * SECOND);
+
+        assertThat(bucket.tryAcquire("alice", now + wait - 1)).isPositive();
+        assertThat(bucket.tryAcquire("alice", now + wait)).isZero();
+    }
+
+    @Test
+    void bucketRefillsOneAttemptPerInterval() {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket("test", 2, Duration.ofSeconds(5), 100, meterRegistry);
+        long now = 1_000 * SECOND;
+
+        assertThat(bucket.tryAcquire("bob", now)).isZero();
+        assertThat(bucket.tryAcquire("bob", now)).isZero();
+        assertThat(bucket.tryAcquire("bob", now)).isPositive();
+
+        // One interval later exactly one attempt is earned back
+        assertThat(bucket.tryAcquire("bob", now + 5 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire("bob", now + 5 * SECOND)).isPositive();
+
+        // After capacity * interval idle the bucket is full again
+        assertThat(bucket.tryAcquire("bob", now + 20 * SECOND)).isZero();
+        assertThat(bucket.tryAcquire("bob", now + 20 * SECOND)).isZero();
+    }
+
+    @Test
+    void bucketKeysAreIndependent() {
+        LoginRateLimiter.Bucket bucket = new LoginRateLimiter.Bucket("test", 1, Duration.ofSeconds(30), 100, meterRegistry);
+        long now = 1_000 * SECOND;
+
+        assertThat(bucket.tryAcquire("alice", now)).isZero();
+        assertThat(bucket.tryAcquire("alice", now)).isPositive();
+        assertThat(bucket.tryAcquire("carol", now)).isZero();
+    }
+
+    @Test
+    void rejectionCarriesRetryAfterFromTheBucket() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setUsernameCapacity(1);
+        properties.setUsernameRefill(Duration.ofSeconds(30));
+        LoginRateLimiter limiter = new LoginRateLimiter(properties, meterRegistry);
+
+        limiter.checkLoginAllowed("alice", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.checkLoginAllowed("Alice", "10.0.0.2"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    long retryAfter = Long.parseLong(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                    assertThat(retryAfter).isBetween(29L, 30L);
+                });
+    }
+
+    @Test
+    void forwardedForIsIgnoredWithoutTrustedProxies() {
+        LoginRateLimiter limiter = new LoginRateLimiter(new LoginThrottleProperties(), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertThat(limiter.clientAddress(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void clientIsNearestUntrustedHopBehindTrustedProxies() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setTrustedProxies(List.of("10.0.0.0/8", "192.168.1.5"));
+        LoginRateLimiter limiter = new LoginRateLimiter(properties, meterRegistry);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.1.2.3");
+        // Leftmost entry is client-supplied and may be forged
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 198.51.100.9, 192.168.1.5");
+        assertThat(limiter.clientAddress(request)).isEqualTo("198.51.100.9");
+
+        MockHttpServletRequest direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("203.0.113.7");
+        direct.addHeader("X-Forwarded-For", "198.51.100.9");
+        assertThat(limiter.clientAddress(direct)).isEqualTo("203.0.113.7");
+    }
+}
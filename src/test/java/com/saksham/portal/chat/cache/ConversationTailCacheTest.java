@@ -0,0 +1,116 @@
+package com.saksham.portal.chat.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.saksham.portal.chat.dto.ChatCursor;
+import com.saksham.portal.chat.dto.MessageResponse;
+
+class ConversationTailCacheTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    void completeTailAnswersEveryPage() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(10, messages(1, 3), true);
+
+        assertThat(ids(tail.latest(50))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(tail.all())).containsExactly(1L, 2L, 3L);
+        assertThat(ids(tail.before(cursor(3), 50))).containsExactly(2L, 1L);
+        assertThat(ids(tail.after(cursor(1), 50))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void partialTailDeclinesWhatItMayNotHold() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(3, messages(5, 7), false);
+
+        assertThat(ids(tail.latest(3))).containsExactly(7L, 6L, 5L);
+        assertThat(tail.latest(4)).isNull();
+        assertThat(tail.before(cursor(6), 2)).isNull();
+        assertThat(tail.all()).isNull();
+        // Messages between the cursor and the oldest held one are unknown
+        assertThat(tail.after(cursor(2), 10)).isNull();
+        assertThat(ids(tail.after(cursor(5), 10))).containsExactly(6L, 7L);
+    }
+
+    @Test
+    void appendPastCapacityEvictsOldestAndWrapsAround() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(3, messages(1, 3), true);
+
+        for (long id = 4; id <= 8; id++) {
+            tail.append(message(id));
+        }
+
+        assertThat(ids(tail.latest(3))).containsExactly(8L, 7L, 6L);
+        assertThat(tail.latest(4)).isNull();
+        assertThat(tail.all()).isNull();
+    }
+
+    @Test
+    void lateCommitIsInsertedInOrder() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(5, List.of(message(1), message(3)), true);
+
+        tail.append(message(4));
+        tail.append(message(2));
+
+        assertThat(ids(tail.all())).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void messageAlreadyLoadedIsNotAppendedTwice() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(5, messages(1, 2), true);
+
+        tail.append(message(2));
+
+        assertThat(ids(tail.all())).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void messageOlderThanPartialTailIsDropped() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(3, messages(5, 6), false);
+
+        tail.append(message(4));
+
+        assertThat(ids(tail.latest(2))).containsExactly(6L, 5L);
+        assertThat(tail.latest(3)).isNull();
+    }
+
+    @Test
+    void weightGrowsWithContentAndShrinksOnEviction() {
+        ConversationTailCache.Tail tail = new ConversationTailCache.Tail(2, List.of(), true);
+        int empty = tail.weight();
+
+        tail.append(message(1));
+        int one = tail.weight();
+        tail.append(message(2));
+        tail.append(message(3));
+
+        assertThat(one).isGreaterThan(empty);
+        assertThat(tail.weight()).isEqualTo(empty + 2 * (one - empty));
+    }
+
+    private static MessageResponse message(long id) {
+        return new MessageResponse(id, 1L, null, 1L, "message " + id, T0.plusSeconds(id));
+    }
+
+    private static List<MessageResponse> messages(long fromId, long toId) {
+        List<MessageResponse> rows = new ArrayList<>();
+        for (long id = fromId; id <= toId; id++) {
+            rows.add(message(id));
+        }
+        return rows;
+    }
+
+    private static ChatCursor cursor(long id) {
+        return ChatCursor.of(message(id));
+    }
+
+    private static List<Long> ids(List<MessageResponse> rows) {
+        return rows.stream().map(MessageResponse::id).toList();
+    }
+}
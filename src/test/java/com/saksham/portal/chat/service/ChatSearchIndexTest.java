@@ -0,0 +1,123 @@
+package com.saksham.portal.chat.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ChatSearchIndexTest {
+
+    @Test
+    void tokenizerLowerCasesAndSplitsOnNonAlphanumerics() {
+        assertThat(ChatSearchIndex.tokenize("Hello, World! Standup@10am -- re-test"))
+                .containsExactly("hello", "world", "standup", "10am", "re", "test");
+    }
+
+    @Test
+    void tokenizerKeepsNonAsciiLettersAndDropsOverlongTokens() {
+        String overlong = "x".repeat(41);
+
+        assertThat(ChatSearchIndex.tokenize("Größe café " + overlong + " naïve"))
+                .containsExactly("größe", "café", "naïve");
+        assertThat(ChatSearchIndex.tokenize("  ... !!! ")).isEmpty();
+    }
+
+    @Test
+    void postingsStaySortedWhenCommitsArriveLate() {
+        ChatSearchIndex.Postings postings = new ChatSearchIndex.Postings();
+        long[] arrival = {1, 2, 5, 3, 8, 4, 9, 6, 7};
+        for (long id : arrival) {
+            postings.add(id, (int) id * 10);
+        }
+
+        assertThat(postings.size()).isEqualTo(arrival.length);
+        for (int i = 0; i < postings.size(); i++) {
+            assertThat(postings.id(i)).isEqualTo(i + 1);
+            assertThat(postings.frequency(i)).isEqualTo((i + 1) * 10);
+        }
+        assertThat(postings.frequencyOf(6)).isEqualTo(60);
+        assertThat(postings.frequencyOf(10)).isEqualTo(-1);
+    }
+
+    @Test
+    void shardIgnoresAMessageIndexedTwice() {
+        ChatSearchIndex.Shard shard = shard(
+                1, "deadline friday",
+                1, "deadline friday");
+
+        assertThat(search(shard, "deadline")).hasSize(1);
+    }
+
+    @Test
+    void bm25ScoreMatchesTheFormula() {
+        ChatSearchIndex.Shard shard = shard(
+                1, "apple banana",
+                2, "apple apple cherry",
+                3, "cherry date");
+
+        List<ChatSearchIndex.Scored> hits = search(shard, "apple");
+
+        double averageLength = 7 / 3.0;
+        double idf = Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5));
+        assertThat(hits).extracting(ChatSearchIndex.Scored::id).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isCloseTo(bm25(idf, 1, 2, averageLength), within(1e-9));
+        assertThat(hits.get(1).score()).isCloseTo(bm25(idf, 2, 3, averageLength), within(1e-9));
+    }
+
+    @Test
+    void everyTermMustMatchAndRareTermsWeighMore() {
+        ChatSearchIndex.Shard shard = shard(
+                1, "meeting today",
+                2, "meeting tomorrow",
+                3, "meeting today room",
+                4, "lunch today");
+
+        assertThat(search(shard, "meeting", "today")).extracting(ChatSearchIndex.Scored::id)
+                .containsExactlyInAnyOrder(1L, 3L);
+        assertThat(search(shard, "meeting", "friday")).isEmpty();
+
+        // "tomorrow" appears once, "today" three times
+        double tomorrow = search(shard, "tomorrow").get(0).score();
+        double today = search(shard, "today").get(0).score();
+        assertThat(tomorrow).isGreaterThan(today);
+    }
+
+    @Test
+    void shorterMessageWinsAtEqualTermFrequency() {
+        ChatSearchIndex.Shard shard = shard(
+                1, "exam",
+                2, "exam moved to the main hall next week");
+
+        List<ChatSearchIndex.Scored> hits = search(shard, "exam");
+
+        assertThat(hits.get(0).id()).isEqualTo(1L);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    private static double bm25(double idf, int tf, int length, double averageLength) {
+        double norm = 1.2 * (1 - 0.75 + 0.75 * length / averageLength);
+        return idf * tf * (1.2 + 1) / (tf + norm);
+    }
+
+    private static ChatSearchIndex.Shard shard(Object... idsAndContent) {
+        ChatSearchIndex.Shard shard = new ChatSearchIndex.Shard();
+        for (int i = 0; i < idsAndContent.length; i += 2) {
+            List<String> tokens = ChatSearchIndex.tokenize((String) idsAndContent[i + 1]);
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+            shard.add(((Integer) idsAndContent[i]).longValue(), frequencies, tokens.size());
+        }
+        return shard;
+    }
+
+    private static List<ChatSearchIndex.Scored> search(ChatSearchIndex.Shard shard, String... terms) {
+        List<ChatSearchIndex.Scored> hits = new ArrayList<>();
+        shard.search(List.of(terms), hits);
+        return hits;
+    }
+}
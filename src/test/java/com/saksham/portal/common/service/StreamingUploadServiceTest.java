@@ -0,0 +1,243 @@
+package com.saksham.portal.common.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.saksham.portal.common.service.StreamingUploadService.StoredFile;
+import com.saksham.portal.submissions.config.FileUploadProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StreamingUploadServiceTest {
+
+    private static final long MAX_SIZE = 100_000;
+    private static final List<String> ALLOWED = List.of("pdf", "png", "jpg", "jpeg", "docx", "doc", "txt");
+
+    private static final byte[] PDF = {'%', 'P', 'D', 'F', '-', '1', '.', '7', '\n'};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+    private static final byte[] ZIP = {'P', 'K', 0x03, 0x04};
+    private static final byte[] OLE = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StreamingUploadService service = new StreamingUploadService(properties(), meterRegistry);
+
+    @Test
+    void storesBodyWithItsHashUnderARandomName() throws Exception {
+        byte[] content = withPrefix(PDF, 5_000);
+
+        StoredFile stored = store(content, content.length, "Resume.PDF");
+
+        assertThat(stored.extension()).isEqualTo("pdf");
+        assertThat(stored.originalFilename()).isEqualTo("Resume.PDF");
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(stored.sha256()).isEqualTo(sha256(content));
+        assertThat(stored.path().getParent()).isEqualTo(directory);
+        assertThat(stored.path().getFileName().toString()).endsWith(".pdf").isNotEqualTo("Resume.PDF");
+        assertThat(Files.readAllBytes(stored.path())).isEqualTo(content);
+        assertThat(files()).containsExactly(stored.path());
+        assertThat(meterRegistry.counter("uploads.stored").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("uploads.bytes").count()).isEqualTo(content.length);
+    }
+
+    @Test
+    void everyKnownSignatureIsAcceptedForItsExtension() throws Exception {
+        Object[][] cases = {
+                {"scan.png", PNG}, {"id.jpg", JPEG}, {"id.jpeg", JPEG}, {"cv.docx", ZIP}, {"cv.doc", OLE}};
+        for (Object[] testCase : cases) {
+            byte[] content = withPrefix((byte[]) testCase[1], 64);
+
+            assertThat(store(content, -1, (String) testCase[0]).size()).as((String) testCase[0]).isEqualTo(64);
+        }
+    }
+
+    @Test
+    void contentNotMatchingItsExtensionIsRefusedAndNothingIsKept() {
+        byte[] png = withPrefix(PNG, 1_000);
+
+        assertStatus(() -> store(png, png.length, "resume.pdf"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(withPrefix(PDF, 100), -1, "cv.docx"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertThat(files()).isEmpty();
+        assertThat(rejected("type")).isEqualTo(2);
+    }
+
+    @Test
+    void mismatchIsDetectedBeforeTheRestOfTheBodyIsRead() {
+        byte[] content = withPrefix(PNG, 90_000);
+        CountingStream body = new CountingStream(content);
+
+        assertStatus(() -> service.store(body, -1, "resume.pdf", ALLOWED, directory), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertThat(body.read).isLessThan(content.length);
+    }
+
+    @Test
+    void executablesAreRefusedWhateverTheExtension() {
+        byte[] windows = withPrefix(new byte[] {'M', 'Z'}, 500);
+        byte[] linux = withPrefix(new byte[] {0x7F, 'E', 'L', 'F'}, 500);
+        byte[] java = withPrefix(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE}, 500);
+
+        assertStatus(() -> store(windows, -1, "notes.txt"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(linux, -1, "notes.txt"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(java, -1, "resume.pdf"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void textHasNoSignatureToCheck() throws Exception {
+        byte[] content = "plain notes\n".getBytes();
+
+        assertThat(store(content, content.length, "notes.txt").size()).isEqualTo(content.length);
+    }
+
+    @Test
+    void bodyShorterThanTheHeadIsStillChecked() throws Exception {
+        assertThat(store(Arrays.copyOf(PDF, 6), 6, "tiny.pdf").size()).isEqualTo(6);
+        assertStatus(() -> store(new byte[] {'%', 'P'}, 2, "tiny.pdf"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(new byte[] {'M', 'Z'}, 2, "tiny.txt"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+
+    @Test
+    void declaredLengthAboveTheLimitIsRefusedWithoutReading() {
+        CountingStream body = new CountingStream(withPrefix(PDF, 10));
+
+        assertStatus(() -> service.store(body, MAX_SIZE + 1, "big.pdf", ALLOWED, directory), HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(body.read).isZero();
+        assertThat(files()).isEmpty();
+        assertThat(rejected("size")).isEqualTo(1);
+    }
+
+    @Test
+    void bodyGrowingPastTheLimitIsRefusedAndTheTempFileDeleted() throws Exception {
+        byte[] atLimit = withPrefix(PDF, (int) MAX_SIZE);
+        byte[] overLimit = withPrefix(PDF, (int) MAX_SIZE + 1);
+
+        assertThat(store(atLimit, -1, "exact.pdf").size()).isEqualTo(MAX_SIZE);
+        Files.delete(files().get(0));
+
+        // Declared length is only a hint; the running count is what is enforced
+        assertStatus(() -> store(overLimit, 10, "big.pdf"), HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void emptyBodyIsRefused() {
+        assertStatus(() -> store(new byte[0], 0, "empty.pdf"), HttpStatus.BAD_REQUEST);
+        assertThat(files()).isEmpty();
+        assertThat(rejected("empty")).isEqualTo(1);
+    }
+
+    @Test
+    void extensionAndNameAreCheckedBeforeAnythingIsWritten() {
+        byte[] content = withPrefix(PDF, 10);
+
+        assertStatus(() -> store(content, -1, "script.sh"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(content, -1, "no-extension"), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        assertStatus(() -> store(content, -1, " "), HttpStatus.BAD_REQUEST);
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void failingBodyLeavesNoTempFile() {
+        InputStream broken = new InputStream() {
+            private int calls;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (calls++ > 0) {
+                    throw new IOException("connection reset");
+                }
+                System.arraycopy(PDF, 0, buffer, offset, PDF.length);
+                return PDF.length;
+            }
+        };
+
+        assertThatThrownBy(() -> service.store(broken, -1, "resume.pdf", ALLOWED, directory))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        assertThat(files()).isEmpty();
+    }
+
+    private StoredFile store(byte[] content, long declaredLength, String filename) throws IOException {
+        return service.store(new ByteArrayInputStream(content), declaredLength, filename, ALLOWED, directory);
+    }
+
+    private static void assertStatus(ThrowingCallable call, HttpStatus status) {
+        assertThatThrownBy(call).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("uploads.rejected", "reason", reason).count();
+    }
+
+    private List<Path> files() {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.toList();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] withPrefix(byte[] prefix, int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        System.arraycopy(prefix, 0, content, 0, Math.min(prefix.length, length));
+        return content;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static FileUploadProperties properties() {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.setMaxSize(MAX_SIZE);
+        return properties;
+    }
+
+    private static final class CountingStream extends FilterInputStream {
+
+        long read;
+
+        CountingStream(byte[] content) {
+            super(new ByteArrayInputStream(content));
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                read += n;
+            }
+            return n;
+        }
+    }
+}
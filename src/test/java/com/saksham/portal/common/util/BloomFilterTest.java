@@ -0,0 +1,69 @@
+package com.saksham.portal.common.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedKeysAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(id)).as("id %d", id).isTrue();
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain(0L)).isFalse();
+        assertThat(filter.mightContain(42L)).isFalse();
+        assertThat(filter.mightContain(Long.MIN_VALUE)).isFalse();
+        assertThat(filter.mightContain("alice@example.com")).isFalse();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRateAtCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (long id = 1_000_000; id < 1_000_000 + probes; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Sequential ids must not cluster; allow twice the configured rate
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void stringKeysAreCaseAndContentSensitive() {
+        BloomFilter filter = new BloomFilter(100, 0.001);
+        filter.put("alice@example.com");
+
+        assertThat(filter.mightContain("alice@example.com")).isTrue();
+        assertThat(filter.mightContain(new StringBuilder("alice@example.com"))).isTrue();
+        assertThat(filter.mightContain("bob@example.com")).isFalse();
+    }
+
+    @Test
+    void degenerateSizesStillWork() {
+        BloomFilter filter = new BloomFilter(0, 0.5);
+        filter.put(Long.MAX_VALUE);
+        filter.put(Long.MIN_VALUE);
+
+        assertThat(filter.mightContain(Long.MAX_VALUE)).isTrue();
+        assertThat(filter.mightContain(Long.MIN_VALUE)).isTrue();
+    }
+}